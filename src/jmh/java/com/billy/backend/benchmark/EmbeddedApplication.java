@@ -0,0 +1,62 @@
+package com.billy.backend.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.billy.backend.Application;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// The application booted on a random port against a throwaway embedded Postgres, for the load harnesses
+class EmbeddedApplication implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedApplication(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    static EmbeddedApplication start(String... extraArgs) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=postgres",
+            "--api.key=benchmark",
+            // The harness sends all its load from one address
+            "--rate-limit.enabled=false",
+            "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(args.toArray(String[]::new));
+        return new EmbeddedApplication(postgres, context);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    JdbcTemplate jdbcTemplate() {
+        return getBean(JdbcTemplate.class);
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
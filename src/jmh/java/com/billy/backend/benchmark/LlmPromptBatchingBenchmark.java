@@ -0,0 +1,173 @@
+package com.billy.backend.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.billy.backend.repository.LlmDescriptionStore;
+import com.billy.backend.service.LlmResilience;
+import com.billy.backend.service.LlmService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+// 32 uncached names described through the batch endpoint's path (describe, 8 at a time) against a local mock of
+// the chat completion API. The mock takes a round trip plus a fixed time per generated token and, like a hosted API
+// quota, serves a limited number of requests at once. Upstream requests and approximate prompt and completion
+// tokens are counted next to the time as secondary results, in target/jmh-result.json with the rest.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LlmPromptBatchingBenchmark {
+
+    private static final int NAMES = 32;
+    private static final int CONCURRENCY = 8;
+    private static final int UPSTREAM_CONCURRENCY = 2;
+    private static final Duration ROUND_TRIP = Duration.ofMillis(50);
+    private static final Duration PER_TOKEN = Duration.ofMillis(1);
+    private static final String DESCRIPTION = "A short, precise and customer-focused description of this product, "
+        + "written for shoppers who want to know what it is, what it is made of and why it is worth buying today.";
+
+    @Param({"1", "4", "8"})
+    private int promptBatchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Semaphore upstreamSlots = new Semaphore(UPSTREAM_CONCURRENCY, true);
+    private final AtomicLong upstreamRequests = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+    private final AtomicLong nameCounter = new AtomicLong();
+    private HttpServer upstream;
+    private LlmService llmService;
+
+    // What the mock saw, summed over the measured iterations. Per name is each count divided by names.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Usage {
+        public long names;
+        public long upstreamRequests;
+        public long promptTokens;
+        public long completionTokens;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/v1/chat/completions", this::complete);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.start();
+
+        LlmDescriptionStore descriptionStore = mock(LlmDescriptionStore.class);
+        when(descriptionStore.find(anyString())).thenReturn(Optional.empty());
+        LlmResilience resilience = new LlmResilience(
+            CircuitBreakerRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(),
+            RetryRegistry.ofDefaults(),
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(60)
+        );
+        llmService = new LlmService(WebClient.builder(), "http://localhost:" + upstream.getAddress().getPort(),
+            descriptionStore, resilience, 100_000, Duration.ofHours(1), ForkJoinPool.commonPool(),
+            new SimpleMeterRegistry(), promptBatchSize, Duration.ofMillis(25));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Benchmark
+    public List<String> describeNames(Usage usage) {
+        // Fresh names every time, the description cache would answer repeats
+        List<String> names = new ArrayList<>(NAMES);
+        for (int i = 0; i < NAMES; i++) {
+            names.add("Product " + nameCounter.incrementAndGet());
+        }
+        long requestsBefore = upstreamRequests.get();
+        long promptTokensBefore = promptTokens.get();
+        long completionTokensBefore = completionTokens.get();
+        List<String> descriptions = Flux.fromIterable(names)
+            .flatMap(llmService::describe, CONCURRENCY)
+            .collectList()
+            .block();
+        // Every request for these names has been answered by now, so the differences are theirs alone
+        usage.names += NAMES;
+        usage.upstreamRequests += upstreamRequests.get() - requestsBefore;
+        usage.promptTokens += promptTokens.get() - promptTokensBefore;
+        usage.completionTokens += completionTokens.get() - completionTokensBefore;
+        return descriptions;
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String prompt = request.path("messages").path(0).path("content").asText();
+        int names = 1;
+        int namesStart = prompt.lastIndexOf('[');
+        if (prompt.contains("Product names: ") && namesStart >= 0) {
+            names = objectMapper.readTree(prompt.substring(namesStart)).size();
+        }
+        String content = names == 1 ? DESCRIPTION : objectMapper.writeValueAsString(Collections.nCopies(names, DESCRIPTION));
+
+        upstreamSlots.acquireUninterruptibly();
+        try {
+            upstreamRequests.incrementAndGet();
+            // Roughly four characters per token
+            promptTokens.addAndGet(prompt.length() / 4);
+            int tokens = content.length() / 4;
+            completionTokens.addAndGet(tokens);
+            Thread.sleep(ROUND_TRIP.plus(PER_TOKEN.multipliedBy(tokens)));
+
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                String delta = objectMapper.writeValueAsString(content);
+                body.write(("data: {\"choices\":[{\"delta\":{\"content\":" + delta + "}}]}\n\ndata: [DONE]\n\n").getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            upstreamSlots.release();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.billy.backend.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.billy.backend.service.LlmStreamParser;
+
+// Tokens per second through the incremental SSE parser vs. the indexOf/substring extraction it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LlmStreamParserBenchmark {
+
+    private static final int TOKENS = 500;
+    private static final int FRAME_SIZE = 1460;
+
+    private List<String> lines;
+    private List<ByteBuffer> frames;
+
+    @Setup
+    public void setUp() {
+        StringBuilder stream = new StringBuilder();
+        lines = new ArrayList<>();
+        for (int i = 0; i < TOKENS; i++) {
+            String payload = "{\"id\":\"chat-1\",\"object\":\"chat.completion.chunk\",\"model\":\"meta/llama-3.1-405b-instruct\"," +
+                "\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\" token" + i + "\"},\"finish_reason\":null}]}";
+            lines.add(payload);
+            stream.append("data: ").append(payload).append("\n\n");
+        }
+        stream.append("data: [DONE]\n\n");
+
+        byte[] bytes = stream.toString().getBytes(StandardCharsets.UTF_8);
+        frames = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += FRAME_SIZE) {
+            frames.add(ByteBuffer.wrap(bytes, offset, Math.min(FRAME_SIZE, bytes.length - offset)).slice());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public void incrementalParser(Blackhole blackhole) {
+        LlmStreamParser parser = new LlmStreamParser();
+        for (ByteBuffer frame : frames) {
+            for (String token : parser.feed(frame.duplicate())) {
+                blackhole.consume(token);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public void substringExtraction(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(extractContentFromChunk(line));
+        }
+    }
+
+    // The previous LlmService implementation, which relied on Spring to hand it one whole payload per element
+    private static String extractContentFromChunk(String chunk) {
+        int contentStart = chunk.indexOf("\"content\":\"");
+        if (contentStart == -1) {
+            return null;
+        }
+        contentStart += "\"content\":\"".length();
+        int contentEnd = chunk.indexOf("\"", contentStart);
+        if (contentEnd == -1) {
+            return null;
+        }
+        return chunk.substring(contentStart, contentEnd);
+    }
+}
@@ -0,0 +1,139 @@
+package com.billy.backend.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpServer;
+
+// CRUD requests sharing the server with slow description generations, on Tomcat platform threads vs. virtual
+// threads. The LLM is a local stub that streams a few tokens with a fixed delay between them, and every
+// generation uses a new product name so none of them are served from the description cache.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class MixedTrafficLoadBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int LLM_TOKENS = 4;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    // Deliberately below the number of generating clients, so the platform thread pool is the bottleneck
+    @Param("50")
+    private int tomcatThreads;
+
+    @Param("100")
+    private int llmTokenDelayMillis;
+
+    private HttpServer llmStub;
+    private EmbeddedApplication application;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        llmStub = startLlmStub();
+        application = EmbeddedApplication.start(
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--server.tomcat.threads.max=" + tomcatThreads,
+            "--llm.base-url=http://localhost:" + llmStub.getAddress().getPort(),
+            // The harness measures thread scheduling, not the bulkhead
+            "--resilience4j.bulkhead.instances.llm.max-concurrent-calls=10000"
+        );
+
+        application.jdbcTemplate().update(
+            "INSERT INTO product (slug, name, description, price, quantity, created_at, updated_at) " +
+            "SELECT 'p-' || i, 'Product ' || i, 'Description of product ' || i, 1 + (i % 500), i % 100, now(), now() " +
+            "FROM generate_series(1, ?) AS i",
+            ROWS);
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = application.baseUrl() + "/products";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+        llmStub.stop(0);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public int crud() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + "/p-" + (1 + random.nextInt(ROWS)))).GET());
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + random.nextInt(100) + "&pageSize=12")).GET());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(64)
+    public int generate() throws Exception {
+        String body = "{\"name\":\"Load test product " + ThreadLocalRandom.current().nextLong() + "\"}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/generate-description"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.build().uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private HttpServer startLlmStub() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < LLM_TOKENS; i++) {
+                    Thread.sleep(llmTokenDelayMillis);
+                    body.write(("data: {\"choices\":[{\"delta\":{\"content\":\"token" + i + " \"}}]}\n\n").getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                }
+                body.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        return server;
+    }
+}
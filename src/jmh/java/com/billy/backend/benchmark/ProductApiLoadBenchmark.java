@@ -0,0 +1,106 @@
+package com.billy.backend.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// End-to-end latency of the read endpoints under concurrent load. Each trial boots the application against
+// its own embedded Postgres and seeds it, so no external database is needed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class ProductApiLoadBenchmark {
+
+    private static final String[] ADJECTIVES = {"wireless", "ergonomic", "leather", "organic", "stainless", "vintage", "compact", "waterproof"};
+    private static final String[] NOUNS = {"mouse", "chair", "wallet", "tea", "bottle", "lamp", "speaker", "jacket", "keyboard", "backpack"};
+
+    @Param({"fulltext", "like"})
+    private String searchEngine;
+
+    @Param("50000")
+    private int rows;
+
+    private EmbeddedApplication application;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = EmbeddedApplication.start("--product.search.engine=" + searchEngine);
+
+        JdbcTemplate jdbcTemplate = application.jdbcTemplate();
+        jdbcTemplate.update(
+            "INSERT INTO product (slug, name, description, price, quantity, created_at, updated_at) " +
+            "SELECT 'p-' || i, initcap(adjectives[1 + i % 8] || ' ' || nouns[1 + i % 10]) || ' ' || i, " +
+            "'A ' || adjectives[1 + (i / 8) % 8] || ' ' || nouns[1 + (i / 10) % 10] || ' for everyday use.', " +
+            "1 + (i % 500), i % 100, now() - i * interval '1 minute', now() - i * interval '1 minute' " +
+            "FROM generate_series(1, ?) AS i, " +
+            "(SELECT ?::text[] AS adjectives, ?::text[] AS nouns) AS words",
+            rows, toArrayLiteral(ADJECTIVES), toArrayLiteral(NOUNS));
+        jdbcTemplate.execute("ANALYZE product");
+
+        httpClient = HttpClient.newHttpClient();
+        baseUrl = application.baseUrl() + "/products";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public int listProducts() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(50);
+        return get("?page=" + page + "&pageSize=12&sortBy=price&sortOrder=asc");
+    }
+
+    @Benchmark
+    public int findBySlug() throws Exception {
+        int id = 1 + ThreadLocalRandom.current().nextInt(rows);
+        return get("/p-" + id);
+    }
+
+    @Benchmark
+    public int search() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String term = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + "+" + NOUNS[random.nextInt(NOUNS.length)];
+        return get("?search=" + term + "&pageSize=12");
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private static String toArrayLiteral(String[] values) {
+        return "{" + String.join(",", values) + "}";
+    }
+}
@@ -0,0 +1,110 @@
+package com.billy.backend.benchmark;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.billy.backend.controller.ProductController;
+import com.billy.backend.dto.ProductResponse;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// One 12-item grid page, from query to JSON, in process. Run with the gc profiler (the jmh profile default) and
+// compare gc.alloc.rate.norm, the bytes allocated per page, between the entity path findAll used to take and
+// the summary projection it uses now.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductListingAllocationBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 12;
+
+    private EmbeddedApplication application;
+    private ProductController productController;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        application = EmbeddedApplication.start();
+        // Grid descriptions are a few paragraphs long
+        application.jdbcTemplate().update(
+            "INSERT INTO product (slug, name, description, price, quantity, created_at, updated_at) " +
+            "SELECT 'p-' || i, 'Product ' || i, repeat('A short, precise and customer-focused sentence. ', 40), " +
+            "1 + (i % 500), i % 100, now() - i * interval '1 minute', now() - i * interval '1 minute' " +
+            "FROM generate_series(1, ?) AS i",
+            ROWS);
+
+        productController = application.getBean(ProductController.class);
+        productService = application.getBean(ProductService.class);
+        productRepository = application.getBean(ProductRepository.class);
+        objectMapper = application.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    // What findAll did before: full entities, copied into responses and a map-of-maps envelope
+    @Benchmark
+    public String entities() throws JsonProcessingException {
+        var productPage = productRepository.findAll(productService.createPageable(0, PAGE_SIZE, "updatedAt", "desc"));
+
+        List<ProductResponse> productResponses = productPage.getContent().stream()
+            .map(ProductResponse::from)
+            .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", productResponses);
+
+        Map<String, Object> pagination = new HashMap<>();
+        pagination.put("page", productPage.getNumber());
+        pagination.put("pageSize", productPage.getSize());
+        pagination.put("pageCount", productPage.getTotalPages());
+        pagination.put("total", productPage.getTotalElements());
+        response.put("meta", Map.of("pagination", pagination));
+
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public String summaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(productController.findAll(0, PAGE_SIZE, "updatedAt", "desc", "", null, null, null, null, null, true, newRequest()).getBody());
+    }
+
+    @Benchmark
+    public String truncatedSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(productController.findAll(0, PAGE_SIZE, "updatedAt", "desc", "", null, 120, null, null, null, true, newRequest()).getBody());
+    }
+
+    private static ServletWebRequest newRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/products"), new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,74 @@
+package com.billy.backend.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.billy.backend.dto.ProductResponse;
+import com.billy.backend.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// One page of entities turned into the findAll response, with and without the JSON write that follows it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductResponseMappingBenchmark {
+
+    @Param({"12", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            products.add(new Product(i, "product-" + i, "Product " + i,
+                "A short, precise and customer-focused description of product number " + i + ".",
+                9.99f + i, i, now, now));
+        }
+    }
+
+    @Benchmark
+    public List<ProductResponse> mapPage() {
+        return products.stream()
+            .map(ProductResponse::from)
+            .toList();
+    }
+
+    @Benchmark
+    public String mapAndSerializePage() throws JsonProcessingException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", mapPage());
+
+        Map<String, Object> pagination = new HashMap<>();
+        pagination.put("page", 0);
+        pagination.put("pageSize", pageSize);
+        pagination.put("pageCount", 1000);
+        pagination.put("total", 1000L * pageSize);
+        response.put("meta", Map.of("pagination", pagination));
+
+        return objectMapper.writeValueAsString(response);
+    }
+}
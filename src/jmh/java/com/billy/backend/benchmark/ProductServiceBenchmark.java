@@ -0,0 +1,64 @@
+package com.billy.backend.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+
+import com.billy.backend.service.ProductService;
+
+// The request-path helpers in ProductService that run on every create and list call
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private ProductService productService;
+
+    @Setup
+    public void setUp() {
+        // slugify and createPageable never touch the repository
+        productService = new ProductService(null);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ProductName {
+
+        @Param({"Wireless Mouse", "  Ergonomic Office Chair (Black) - 2024 Edition!  "})
+        private String value;
+    }
+
+    @Benchmark
+    public String slugify(ProductName name) {
+        return ProductService.slugify(name.value);
+    }
+
+    // What slugify did before the pattern was compiled once
+    @Benchmark
+    public String slugifyWithStringReplaceAll(ProductName name) {
+        return name.value.trim().toLowerCase().replaceAll("[^a-z0-9]+", "-");
+    }
+
+    @Benchmark
+    public Pageable createPageable() {
+        return productService.createPageable(3, 12, "price", "asc");
+    }
+
+    @Benchmark
+    public Pageable createPageableWithFallbacks() {
+        return productService.createPageable(0, 12, "unknown", "sideways");
+    }
+}
@@ -0,0 +1,108 @@
+package com.billy.backend.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.billy.backend.dto.PageResponse;
+import com.billy.backend.dto.ProductSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// One list page written in each format GET /products negotiates, for the serialization CPU per page. The payload
+// size of each format is counted next to it as secondary results: payloadBytes over pages is the size of one page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    private static final String[] WORDS = {
+        "soft", "cotton", "durable", "everyday", "lightweight", "handmade", "ceramic", "oak", "recycled", "compact",
+        "premium", "travel", "kitchen", "office", "classic", "modern", "water-resistant", "washable", "gift", "set"
+    };
+
+    @Param({"12", "100"})
+    private int pageSize;
+
+    private final ObjectMapper jsonMapper = new Jackson2ObjectMapperBuilder().build();
+    private final ObjectMapper cborMapper = new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build();
+    private final ObjectMapper smileMapper = new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build();
+    private PageResponse<ProductSummary> page;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long pages;
+        public long payloadBytes;
+
+        byte[] record(byte[] bytes) {
+            pages++;
+            payloadBytes += bytes.length;
+            return bytes;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ProductSummary> products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int word = 0; word < 30; word++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            products.add(new ProductSummary("Product " + i, "product-" + i, description.toString().trim(),
+                1 + random.nextInt(50_000) / 100f, random.nextInt(100)));
+        }
+        page = PageResponse.of(new PageImpl<>(products, PageRequest.of(0, pageSize), 200_000));
+    }
+
+    @Benchmark
+    public byte[] json(Payload payload) throws IOException {
+        return payload.record(jsonMapper.writeValueAsBytes(page));
+    }
+
+    // What server.compression does to the JSON body, at the default deflate level Tomcat uses
+    @Benchmark
+    public byte[] jsonGzip(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            jsonMapper.writeValue(gzip, page);
+        }
+        return payload.record(bytes.toByteArray());
+    }
+
+    @Benchmark
+    public byte[] cbor(Payload payload) throws IOException {
+        return payload.record(cborMapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public byte[] smile(Payload payload) throws IOException {
+        return payload.record(smileMapper.writeValueAsBytes(page));
+    }
+}
@@ -0,0 +1,56 @@
+package com.billy.backend.config;
+
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// CBOR (Accept: application/cbor) and Smile (Accept: application/x-jackson-smile) alongside JSON, which stays the
+// default. The mappers come from Boot's Jackson2ObjectMapperBuilder so the binary formats carry the same fields and
+// ISO dates as the JSON responses; Spring's own defaults for these formats would write dates as timestamps.
+// The reactive profile only gets Smile: WebFlux's CBOR encoder cannot write Publisher bodies.
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    @Profile("!reactive")
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(mapper(builder, new CBORFactory()));
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(mapper(builder, new SmileFactory()));
+    }
+
+    @Bean
+    @Profile("reactive")
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder, ObjectMapper objectMapper) {
+        ObjectMapper smileMapper = mapper(builder, new SmileFactory());
+        // Without explicit mime types the codecs would claim the JSON ones
+        MimeType smile = MimeType.valueOf("application/x-jackson-smile");
+        return configurer -> {
+            // Custom writers are consulted before the default ones, JSON goes first so it still answers Accept: */*
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper, smile));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper, smile));
+        };
+    }
+
+    private static ObjectMapper mapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory).build();
+    }
+}
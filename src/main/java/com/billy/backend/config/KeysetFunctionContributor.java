@@ -0,0 +1,39 @@
+package com.billy.backend.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class KeysetFunctionContributor implements FunctionContributor {
+
+    // Row value comparisons let Postgres seek straight into a composite (column, id) index
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+            "keyset_after",
+            "(?1, ?2) > (?3, ?4)",
+            basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        functionContributions.getFunctionRegistry().registerPattern(
+            "keyset_before",
+            "(?1, ?2) < (?3, ?4)",
+            basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        // price is a float8 column holding float values, or doubles written before imports rounded them. Seeking on
+        // the column compares it with a float cursor, which misses an exact double. Matches idx_product_price_keyset.
+        functionContributions.getFunctionRegistry().registerPattern(
+            "keyset_price",
+            "cast(?1 as real)",
+            basicTypeRegistry.resolve(StandardBasicTypes.FLOAT)
+        );
+        // With the literal inlined, so it matches idx_product_quantity_keyset (a bound 0 wouldn't)
+        functionContributions.getFunctionRegistry().registerPattern(
+            "keyset_quantity",
+            "coalesce(?1, 0)",
+            basicTypeRegistry.resolve(StandardBasicTypes.INTEGER)
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package com.billy.backend.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class ProductSearchFunctionContributor implements FunctionContributor {
+
+    // Must match the expression of idx_product_search in schema.sql, otherwise Postgres can't use the GIN index
+    private static final String DOCUMENT = "to_tsvector('english', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String QUERY = "websearch_to_tsquery('english', ?3)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+            "fts_match",
+            DOCUMENT + " @@ " + QUERY,
+            basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        functionContributions.getFunctionRegistry().registerPattern(
+            "fts_rank",
+            "ts_rank(" + DOCUMENT + ", " + QUERY + ")",
+            basicTypeRegistry.resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
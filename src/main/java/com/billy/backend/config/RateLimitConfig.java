@@ -0,0 +1,68 @@
+package com.billy.backend.config;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Per-client budgets for cheap reads, search, LLM generation and imports, enforced in a filter ahead of the controllers
+// (and per name for batch generation). Buckets live in each instance's memory, so with several instances a client's
+// budget is per instance.
+@Configuration
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(
+        @Value("${rate-limit.read.capacity}") int readCapacity,
+        @Value("${rate-limit.read.tokens-per-second}") double readRate,
+        @Value("${rate-limit.search.capacity}") int searchCapacity,
+        @Value("${rate-limit.search.tokens-per-second}") double searchRate,
+        @Value("${rate-limit.llm.capacity}") int llmCapacity,
+        @Value("${rate-limit.llm.tokens-per-second}") double llmRate,
+        @Value("${rate-limit.import.capacity}") int importCapacity,
+        @Value("${rate-limit.import.tokens-per-second}") double importRate,
+        @Value("${rate-limit.maximum-clients}") long maximumClients
+    ) {
+        return new RateLimiter(Map.of(
+            RateLimiter.Tier.READ, new RateLimiter.Limit(readCapacity, readRate),
+            RateLimiter.Tier.SEARCH, new RateLimiter.Limit(searchCapacity, searchRate),
+            RateLimiter.Tier.LLM, new RateLimiter.Limit(llmCapacity, llmRate),
+            RateLimiter.Tier.IMPORT, new RateLimiter.Limit(importCapacity, importRate)
+        ), maximumClients, System::nanoTime);
+    }
+
+    // Right after the observation filter, so rejected requests still show up in http.server.requests
+    @Bean
+    @Profile("!reactive")
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+        RateLimiter rateLimiter,
+        @Value("${rate-limit.api-key-header}") String apiKeyHeader,
+        @Value("${rate-limit.api-keys}") Set<String> apiKeys,
+        MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+            new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, apiKeyHeader, apiKeys, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    @Profile("reactive")
+    public ReactiveRateLimitFilter reactiveRateLimitFilter(
+        RateLimiter rateLimiter,
+        @Value("${rate-limit.api-key-header}") String apiKeyHeader,
+        @Value("${rate-limit.api-keys}") Set<String> apiKeys,
+        MeterRegistry meterRegistry
+    ) {
+        return new ReactiveRateLimitFilter(rateLimiter, apiKeyHeader, apiKeys, meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.billy.backend.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Turns away clients over their budget with a 429 before the request reaches a controller. Clients are told apart
+// by their API key header when it holds one of the configured keys, otherwise by address. An unknown key counts as
+// no key, or a client could get a fresh bucket per request just by making keys up.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // The client a request was admitted as, for charging work the filter can't size (see DescriptionBatchService)
+    public static final String CLIENT_ATTRIBUTE = "com.billy.backend.config.RateLimitFilter.client";
+
+    private final RateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiter rateLimiter, String apiKeyHeader, Set<String> apiKeys, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = apiKeys;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String search = request.getParameter("search");
+        RateLimiter.Tier tier = RateLimiter.Tier.of(request.getRequestURI(), search != null && !search.isEmpty());
+        String client = client(request.getHeader(apiKeyHeader), apiKeys, request.getRemoteAddr());
+
+        Duration retryAfter = rateLimiter.tryAcquire(tier, client);
+        if (retryAfter.isZero()) {
+            request.setAttribute(CLIENT_ATTRIBUTE, client);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        meterRegistry.counter("rate-limit.rejected", "tier", tier.name().toLowerCase()).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(retryAfter)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, try again later");
+    }
+
+    static String client(String apiKey, Set<String> apiKeys, String address) {
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + address;
+    }
+
+    // Retry-After is in whole seconds, rounded up so a client that waits it out is admitted
+    public static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
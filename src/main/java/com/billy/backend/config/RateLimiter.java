@@ -0,0 +1,86 @@
+package com.billy.backend.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Token buckets per client and tier, kept as GCRA: a bucket is the single timestamp at which it would be full again,
+// advanced by one token's worth of time per admitted request with a compare-and-set, so admission takes no lock.
+// A bucket idle long enough to have refilled is the same as a new one, which is when it expires.
+public class RateLimiter {
+
+    public enum Tier {
+        READ, SEARCH, LLM, IMPORT;
+
+        // Search and the full export scan the table, an import rewrites it, generation spends LLM quota, everything
+        // else is cheap. A batch generation request is itself cheap: DescriptionBatchService charges LLM per name.
+        public static Tier of(String path, boolean searching) {
+            if (path.contains("/generate-description/batch")) {
+                return READ;
+            }
+            if (path.contains("/generate-description")) {
+                return LLM;
+            }
+            if (path.startsWith("/products/import")) {
+                return IMPORT;
+            }
+            if (searching || path.startsWith("/product-export")) {
+                return SEARCH;
+            }
+            return READ;
+        }
+    }
+
+    public record Limit(int capacity, double tokensPerSecond) {
+    }
+
+    private final Map<Tier, TierBuckets> tiers = new EnumMap<>(Tier.class);
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(Map<Tier, Limit> limits, long maximumClients, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        limits.forEach((tier, limit) -> tiers.put(tier, new TierBuckets(limit, maximumClients)));
+    }
+
+    // Zero when the request is admitted, otherwise how long until the client has a token again
+    public Duration tryAcquire(Tier tier, String client) {
+        TierBuckets buckets = tiers.get(tier);
+        if (buckets == null) {
+            return Duration.ZERO;
+        }
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.cache.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long newFullAt = Math.max(fullAt, now) + buckets.nanosPerToken;
+            long excess = newFullAt - now - buckets.burstNanos;
+            if (excess > 0) {
+                return Duration.ofNanos(excess);
+            }
+            if (bucket.compareAndSet(fullAt, newFullAt)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    private static final class TierBuckets {
+        private final long nanosPerToken;
+        private final long burstNanos;
+        private final Cache<String, AtomicLong> cache;
+
+        private TierBuckets(Limit limit, long maximumClients) {
+            this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / limit.tokensPerSecond());
+            this.burstNanos = nanosPerToken * limit.capacity();
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+        }
+    }
+}
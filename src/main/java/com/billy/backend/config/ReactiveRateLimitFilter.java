@@ -0,0 +1,66 @@
+package com.billy.backend.config;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+// RateLimitFilter for the reactive profile
+public class ReactiveRateLimitFilter implements WebFilter, Ordered {
+
+    private final RateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final MeterRegistry meterRegistry;
+
+    public ReactiveRateLimitFilter(RateLimiter rateLimiter, String apiKeyHeader, Set<String> apiKeys, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = apiKeys;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (path.startsWith("/actuator")) {
+            return chain.filter(exchange);
+        }
+        String search = request.getQueryParams().getFirst("search");
+        RateLimiter.Tier tier = RateLimiter.Tier.of(path, search != null && !search.isEmpty());
+        InetSocketAddress address = request.getRemoteAddress();
+        String client = RateLimitFilter.client(request.getHeaders().getFirst(apiKeyHeader), apiKeys,
+            address != null && address.getAddress() != null ? address.getAddress().getHostAddress() : "unknown");
+
+        Duration retryAfter = rateLimiter.tryAcquire(tier, client);
+        if (retryAfter.isZero()) {
+            return chain.filter(exchange);
+        }
+        meterRegistry.counter("rate-limit.rejected", "tier", tier.name().toLowerCase()).increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimitFilter.retryAfterSeconds(retryAfter)));
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        byte[] body = "Too many requests, try again later".getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.billy.backend.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Only active when datasource.replica.urls is set, otherwise Boot's single DataSource is used as before.
+// Read-only transactions (repository finders, counts, searches, listings) go to a replica, everything else to the
+// primary. The lazy proxy defers fetching a physical connection until the first statement, by which point the
+// transaction's read-only flag is known.
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("!'${datasource.replica.urls:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+        DataSourceProperties properties,
+        ObjectProvider<MeterRegistry> meterRegistry,
+        @Value("${datasource.replica.urls}") List<String> replicaUrls,
+        @Value("${datasource.replica.connection-timeout}") Duration connectionTimeout,
+        @Value("${datasource.replica.max-lag}") Duration maxLag,
+        Environment environment
+    ) {
+        // Built here rather than by Boot, so spring.datasource.hikari.* is bound by hand, to the replicas as well
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            // Replicas share the primary's credentials
+            HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrls.get(i).trim())
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+            binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            // Fail over to the primary quickly instead of waiting out the default 30s
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Boot only binds pool metrics for DataSource beans, the replica pools aren't ones
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.getPrimary());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${datasource.replica.read-your-writes-window}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+
+    // Reads fall back to the primary, so a replica being down degrades the service rather than taking it down
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return () -> Health.up().withDetails(replicaRoutingDataSource.replicaStatus()).build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.billy.backend.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Hands out replica connections round-robin, skipping replicas that failed their last health check or are lagging
+// more than maxLag behind the primary. Falls back to the primary when no replica is usable, or when the current
+// thread is pinned to it (read-your-writes, see usePrimary()).
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = ThreadLocal.withInitial(() -> false);
+
+    // Zero when the replica has replayed everything it received, so an idle primary doesn't read as lag
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(entry -> new Replica(entry.getKey(), entry.getValue())).toList();
+        this.maxLag = maxLag;
+    }
+
+    // Reads on this thread go to the primary until the scope is closed
+    public static PrimaryScope usePrimary() {
+        boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(true);
+        return () -> PRIMARY_PINNED.set(previous);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!PRIMARY_PINNED.get()) {
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // Explicit credentials are for the caller's own statements, which may write
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-interval}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.dataSource);
+                jdbcTemplate.setQueryTimeout(5);
+                Double lagSeconds = jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+                if (lagSeconds != null && lagSeconds * 1000 > maxLag.toMillis()) {
+                    markDown(replica, String.format("replication lag of %.1fs", lagSeconds));
+                } else if (!replica.healthy) {
+                    log.info("Replica {} is back, routing reads to it again", replica.name);
+                    replica.healthy = true;
+                }
+            } catch (RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, String> replicaStatus() {
+        Map<String, String> status = new LinkedHashMap<>();
+        replicas.forEach(replica -> status.put(replica.name, replica.healthy ? "UP" : "DOWN"));
+        return status;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("Replica {} is unavailable ({}), reading from the primary until it recovers", replica.name, reason);
+            replica.healthy = false;
+        }
+    }
+
+    public interface PrimaryScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
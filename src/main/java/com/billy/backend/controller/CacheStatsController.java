@@ -0,0 +1,45 @@
+package com.billy.backend.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.billy.backend.service.LlmService;
+import com.billy.backend.service.ProductCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/cache-stats")
+public class CacheStatsController {
+
+    private final ProductCache productCache;
+    private final LlmService llmService;
+
+    public CacheStatsController(ProductCache productCache, LlmService llmService) {
+        this.productCache = productCache;
+        this.llmService = llmService;
+    }
+
+    @GetMapping("")
+    public Map<String, Object> findAll() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", toMap(productCache.stats(), productCache.size()));
+        response.put("descriptions", toMap(llmService.cacheStats(), llmService.cacheSize()));
+        return response;
+    }
+
+    private Map<String, Object> toMap(CacheStats stats, long size) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", size);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
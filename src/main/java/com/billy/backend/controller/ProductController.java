@@ -1,26 +1,58 @@
 package com.billy.backend.controller;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 
+import com.billy.backend.config.RateLimitFilter;
+import com.billy.backend.exception.PreconditionFailedException;
 import com.billy.backend.exception.ProductNameNotValidException;
 import com.billy.backend.exception.ProductNotFoundException;
+import com.billy.backend.model.CatalogVersion;
+import com.billy.backend.model.LlmBatchRequest;
 import com.billy.backend.model.LlmRequest;
 import com.billy.backend.model.Product;
+import com.billy.backend.model.ProductFilter;
+import com.billy.backend.model.QuantityChangeRequest;
+import com.billy.backend.service.DescriptionBatchService;
 import com.billy.backend.service.LlmService;
+import com.billy.backend.service.ProductCache;
+import com.billy.backend.service.ProductCountCache;
+import com.billy.backend.service.ProductImportService;
+import com.billy.backend.service.ProductKeysetService;
+import com.billy.backend.service.ProductSearchEngine;
 import com.billy.backend.service.ProductService;
+import com.billy.backend.repository.CatalogVersionRepository;
 import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.dto.DescriptionResult;
+import com.billy.backend.dto.ImportResult;
+import com.billy.backend.dto.PageResponse;
 import com.billy.backend.dto.ProductResponse;
+import com.billy.backend.dto.ProductSummary;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/products")
 @CrossOrigin
 public class ProductController {
@@ -28,79 +60,170 @@ public class ProductController {
     private final ProductRepository repository;
     private final ProductService productService;
     private final LlmService llmService;
+    private final ProductSearchEngine searchEngine;
+    private final ProductKeysetService keysetService;
+    private final ProductCache productCache;
+    private final DescriptionBatchService descriptionBatchService;
+    private final ProductImportService productImportService;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ProductCountCache productCountCache;
+    private final String cacheControl;
 
-    public ProductController(ProductRepository repository, ProductService productService, LlmService llmService) {
+    public ProductController(ProductRepository repository, ProductService productService, LlmService llmService, ProductSearchEngine searchEngine, ProductKeysetService keysetService, ProductCache productCache, DescriptionBatchService descriptionBatchService, ProductImportService productImportService, CatalogVersionRepository catalogVersionRepository, ProductCountCache productCountCache, @Value("${product.http.cache-control}") String cacheControl) {
         this.repository = repository;
         this.productService = productService;
         this.llmService = llmService;
+        this.searchEngine = searchEngine;
+        this.keysetService = keysetService;
+        this.productCache = productCache;
+        this.descriptionBatchService = descriptionBatchService;
+        this.productImportService = productImportService;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.productCountCache = productCountCache;
+        this.cacheControl = cacheControl;
     }
 
+    // One read-only transaction, so the catalog version and the page are read over the same connection, from the
+    // same replica when replicas are configured
+    @Transactional(readOnly = true)
     @GetMapping("")
-    public Map<String, Object> findAll(
+    public ResponseEntity<PageResponse<ProductSummary>> findAll(
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "12") int pageSize,
         @RequestParam(defaultValue = "updatedAt") String sortBy,
         @RequestParam(defaultValue = "desc") String sortOrder,
-        @RequestParam(defaultValue = "") String search
+        @RequestParam(defaultValue = "") String search,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer descriptionLength,
+        @RequestParam(required = false) Float minPrice,
+        @RequestParam(required = false) Float maxPrice,
+        @RequestParam(required = false) Boolean inStock,
+        @RequestParam(defaultValue = "true") boolean withTotal,
+        WebRequest webRequest
     ) {
+        // Read before the page itself, so a concurrent write can leave the ETag older than the data but never newer.
+        // No Last-Modified: writes commit out of timestamp order, so a later date doesn't mean nothing changed since.
+        CatalogVersion catalogVersion = catalogVersionRepository.current();
+        if (webRequest.checkNotModified(ProductEtags.of(catalogVersion))) {
+            return notModified();
+        }
+
+        ProductFilter filter = new ProductFilter(minPrice, maxPrice, inStock);
+        if (after != null) {
+            return ok(findAllByCursor(pageSize, sortBy, sortOrder, search, filter, after, descriptionLength));
+        }
+
         Pageable pageable = productService.createPageable(page, pageSize, sortBy, sortOrder);
 
-        Page<Product> productPage;
+        Slice<ProductSummary> productSlice;
         if (!search.isEmpty()) {
-            productPage = repository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(search, search, pageable);
+            productSlice = searchEngine.search(search, filter.toSpecification(), pageable, descriptionLength);
         } else {
-            productPage = repository.findAll(pageable);
+            productSlice = repository.findSummaries(filter.toSpecification(), pageable, descriptionLength);
         }
 
-        List<ProductResponse> productResponses = productPage.getContent().stream()
-        .map(product -> new ProductResponse(product.getName(), product.getSlug(), product.getDescription(), product.getPrice(), product.getQuantity()))
-        .toList();
+        if (!withTotal) {
+            return ok(PageResponse.of(productSlice));
+        }
+        // The total is only looked up when the page alone doesn't determine it
+        Page<ProductSummary> productPage = PageableExecutionUtils.getPage(productSlice.getContent(), pageable,
+            () -> productCountCache.count(catalogVersion.countVersion(), search, filter));
+        return ok(PageResponse.of(productPage));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("data", productResponses);
+    private PageResponse<ProductSummary> findAllByCursor(int pageSize, String sortBy, String sortOrder, String search, ProductFilter filter, String after, Integer descriptionLength) {
+        Specification<Product> specification = (search.isEmpty() ? Specification.<Product>where(null) : searchEngine.matching(search))
+            .and(filter.toSpecification());
+        Slice<Product> productSlice = keysetService.findAll(specification, after, pageSize, sortBy, sortOrder);
 
-        Map<String, Object> pagination = new HashMap<>();
-        pagination.put("page", productPage.getNumber());
-        pagination.put("pageSize", productPage.getSize());
-        pagination.put("pageCount", productPage.getTotalPages());
-        pagination.put("total", productPage.getTotalElements());
-        response.put("meta", Map.of("pagination", pagination));
+        List<ProductSummary> productSummaries = productSlice.getContent().stream()
+        .map(product -> ProductSummary.from(product, descriptionLength))
+        .toList();
+
+        String nextCursor = null;
+        if (productSlice.hasNext()) {
+            Product last = productSlice.getContent().get(productSlice.getNumberOfElements() - 1);
+            nextCursor = keysetService.encodeCursor(last, sortBy);
+        }
 
-        return response;
+        return PageResponse.of(productSummaries, productSlice.getSize(), productSlice.hasNext(), nextCursor);
     }
 
     @GetMapping("/{slug}")
-    public ProductResponse findBySlug(@PathVariable String slug) {
-        Product product = repository.findBySlug(slug).orElseThrow(() -> new ProductNotFoundException("Product with slug " + slug + " not found"));
-        return new ProductResponse(product.getName(), product.getSlug(), product.getDescription(), product.getPrice(), product.getQuantity());
+    public ResponseEntity<ProductResponse> findBySlug(@PathVariable String slug, WebRequest webRequest) {
+        Product product = productCache.findBySlug(slug).orElseThrow(() -> new ProductNotFoundException("Product with slug " + slug + " not found"));
+        if (webRequest.checkNotModified(ProductEtags.of(product), ProductEtags.toEpochMilli(ProductEtags.lastModified(product)))) {
+            return notModified();
+        }
+        return ok(ProductResponse.from(product));
     }
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("")
     public ProductResponse create(@Valid @RequestBody Product product) {
-        Product newProduct = productService.createProduct(product);
-        Product saveProduct = repository.save(newProduct);
-        return new ProductResponse(saveProduct.getName(), saveProduct.getSlug(), saveProduct.getDescription(), saveProduct.getPrice(), saveProduct.getQuantity());
+        Product saveProduct = productService.saveNewProduct(product);
+        productCache.invalidate(saveProduct.getSlug());
+        return ProductResponse.from(saveProduct);
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ImportResult importProducts(HttpServletRequest request) throws IOException {
+        return productImportService.importProducts(request.getInputStream(), MediaType.parseMediaType(request.getContentType()));
     }
 
     @ResponseStatus(HttpStatus.OK)
     @PutMapping("/{slug}")
-    public ProductResponse update(@RequestBody Product product, @PathVariable String slug) {
-        Product existingProduct = repository.findBySlug(slug)
+    public ResponseEntity<ProductResponse> update(
+        @RequestBody Product product,
+        @PathVariable String slug,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Product existingProduct = productCache.findBySlug(slug)
             .orElseThrow(() -> new ProductNotFoundException("Product with slug " + slug + " not found"));
+        if (!ProductEtags.matches(ifMatch, ProductEtags.of(existingProduct))) {
+            throw new PreconditionFailedException("Product with slug " + slug + " has been modified");
+        }
 
         Product updatedProduct = productService.updateProduct(existingProduct, product);
-        Product saveProduct = repository.save(updatedProduct);
-        return new ProductResponse(saveProduct.getName(), saveProduct.getSlug(), saveProduct.getDescription(), saveProduct.getPrice(), saveProduct.getQuantity());
+        Product saveProduct;
+        try {
+            saveProduct = repository.save(updatedProduct);
+        } catch (OptimisticLockingFailureException e) {
+            // The cached copy is stale, drop it so the client's retry starts from the current row
+            productCache.invalidate(slug);
+            throw e;
+        }
+        productCache.invalidate(slug);
+        return ResponseEntity.ok()
+            .eTag(ProductEtags.of(saveProduct))
+            .body(ProductResponse.from(saveProduct));
+    }
+
+    @PostMapping("/{slug}/quantity/increment")
+    public ResponseEntity<ProductResponse> incrementQuantity(@PathVariable String slug, @Valid @RequestBody QuantityChangeRequest body) {
+        return quantityChanged(productService.incrementQuantity(slug, body.amount()));
+    }
+
+    @PostMapping("/{slug}/quantity/decrement")
+    public ResponseEntity<ProductResponse> decrementQuantity(@PathVariable String slug, @Valid @RequestBody QuantityChangeRequest body) {
+        return quantityChanged(productService.decrementQuantity(slug, body.amount()));
+    }
+
+    private ResponseEntity<ProductResponse> quantityChanged(Product product) {
+        productCache.invalidate(product.getSlug());
+        return ResponseEntity.ok()
+            .eTag(ProductEtags.of(product))
+            .body(ProductResponse.from(product));
     }
 
     @ResponseStatus(HttpStatus.OK)
     @DeleteMapping("/{slug}")
     public String delete(@PathVariable String slug) {
-        Product existingProduct = repository.findBySlug(slug)
+        Product existingProduct = productCache.findBySlug(slug)
         .orElseThrow(() -> new ProductNotFoundException("Product with slug " + slug + " not found"));
 
         repository.deleteById(existingProduct.getId());
+        productCache.invalidate(slug);
 
         return String.format("Deleted %s successfully!", existingProduct.getName());
     }
@@ -108,11 +231,48 @@ public class ProductController {
     @ResponseStatus(HttpStatus.OK)
     @PostMapping("/generate-description")
     public String generateDescription(@RequestBody LlmRequest body) {
-        if (body == null || body.name() == null || body.name() == "") {
-            throw new ProductNameNotValidException("Product name is missing, please enter product name before generating description");
-        }
+        validateProductName(body);
 
         String description = llmService.chatCompletionApi(body.name());
         return description;
     }
+
+    @PostMapping(value = "/generate-description/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamDescription(@RequestBody LlmRequest body) {
+        validateProductName(body);
+
+        return llmService.streamDescription(body.name())
+            .map(token -> ServerSentEvent.builder(token).build())
+            .concatWith(Mono.just(ServerSentEvent.<String>builder().event("done").build()));
+    }
+
+    @PostMapping(value = "/generate-description/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DescriptionResult> generateDescriptions(
+        @RequestBody(required = false) LlmBatchRequest body,
+        @RequestAttribute(name = RateLimitFilter.CLIENT_ATTRIBUTE, required = false) String client
+    ) {
+        return descriptionBatchService.generate(body, client);
+    }
+
+    // checkNotModified has already set the ETag (and Last-Modified for a product), and the 304 status when the client
+    // copy is current. The body is JSON, CBOR or Smile depending on Accept, so caches have to key on it.
+    private <T> ResponseEntity<T> ok(T body) {
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(body);
+    }
+
+    private <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .varyBy(HttpHeaders.ACCEPT)
+            .build();
+    }
+
+    private void validateProductName(LlmRequest body) {
+        if (body == null || body.name() == null || body.name() == "") {
+            throw new ProductNameNotValidException("Product name is missing, please enter product name before generating description");
+        }
+    }
 }
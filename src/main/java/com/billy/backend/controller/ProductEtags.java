@@ -0,0 +1,47 @@
+package com.billy.backend.controller;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.billy.backend.model.CatalogVersion;
+import com.billy.backend.model.Product;
+
+// Validators for product responses. A product changes its ETag with its version, which every write to the row bumps
+// (updatedAt can repeat within a millisecond or go backwards with the clock), list pages whenever any product
+// changes. Product ETags are strong, for If-Match on updates. List page ETags are weak: the same page is served as
+// JSON, CBOR or Smile and gzipped or not, and Tomcat will not compress a response with a strong ETag.
+public final class ProductEtags {
+
+    private ProductEtags() {
+    }
+
+    public static String of(Product product) {
+        return "\"" + product.getId() + "-" + product.getVersion() + "\"";
+    }
+
+    public static String of(CatalogVersion catalogVersion) {
+        return "W/\"catalog-" + catalogVersion.version() + "\"";
+    }
+
+    public static LocalDateTime lastModified(Product product) {
+        return product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+    }
+
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // If-Match is a list of strong ETags or "*", a missing header matches anything
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch == null) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
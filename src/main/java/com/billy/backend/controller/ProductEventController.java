@@ -0,0 +1,63 @@
+package com.billy.backend.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.billy.backend.dto.ProductEvent;
+import com.billy.backend.dto.ProductEventBatch;
+import com.billy.backend.service.ProductEventService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Change feed of products for downstream consumers. Not under /products, where "events" would be taken for a slug.
+@RestController
+@Profile("!reactive")
+@RequestMapping("/product-events")
+public class ProductEventController {
+
+    private final ProductEventService productEventService;
+    private final Duration maxWait;
+    private final Duration streamDuration;
+
+    public ProductEventController(
+        ProductEventService productEventService,
+        @Value("${product.events.max-wait}") Duration maxWait,
+        @Value("${product.events.stream-duration}") Duration streamDuration
+    ) {
+        this.productEventService = productEventService;
+        this.maxWait = maxWait;
+        this.streamDuration = streamDuration;
+    }
+
+    // Long poll: returns once events after the offset exist, or empty after waitSeconds
+    @GetMapping("")
+    public Mono<ProductEventBatch> poll(
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "30") long waitSeconds
+    ) {
+        Duration wait = Duration.ofSeconds(Math.max(waitSeconds, 0));
+        return productEventService.poll(after, wait.compareTo(maxWait) > 0 ? maxWait : wait);
+    }
+
+    // Each event carries its offset as the SSE id, so EventSource clients resume from Last-Event-ID on reconnect.
+    // The stream ends after streamDuration, before the async request timeout would cut it.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ProductEvent>> stream(
+        @RequestParam(required = false) String after,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return productEventService.stream(lastEventId != null ? lastEventId : after)
+            .map(event -> ServerSentEvent.builder(event).id(event.offset()).event(event.type()).build())
+            .take(streamDuration);
+    }
+}
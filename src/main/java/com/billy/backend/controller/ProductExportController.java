@@ -0,0 +1,57 @@
+package com.billy.backend.controller;
+
+import java.io.IOException;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.billy.backend.service.ProductExportService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+// Full catalog dump in the formats /products/import accepts, CSV when asked for with Accept: text/csv and NDJSON
+// otherwise. Written synchronously to the response so a long export is not cut by the async request timeout.
+// The mapping declares no produces: any other Accept, even an unparsable one, gets NDJSON rather than a 406.
+@RestController
+@Profile("!reactive")
+@RequestMapping("/product-export")
+public class ProductExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ProductExportService productExportService;
+
+    public ProductExportController(ProductExportService productExportService) {
+        this.productExportService = productExportService;
+    }
+
+    @GetMapping("")
+    public void export(
+        @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept,
+        HttpServletResponse response
+    ) throws IOException {
+        if (acceptsCsv(accept)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\"");
+            productExportService.exportCsv(response.getOutputStream());
+        } else {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"");
+            productExportService.exportNdjson(response.getOutputStream());
+        }
+    }
+
+    private static boolean acceptsCsv(String accept) {
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(TEXT_CSV::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
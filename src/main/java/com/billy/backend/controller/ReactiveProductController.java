@@ -0,0 +1,93 @@
+package com.billy.backend.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+
+import com.billy.backend.dto.PageResponse;
+import com.billy.backend.dto.ProductResponse;
+import com.billy.backend.exception.ProductNameNotValidException;
+import com.billy.backend.model.LlmRequest;
+import com.billy.backend.model.Product;
+import com.billy.backend.service.LlmService;
+import com.billy.backend.service.ReactiveProductService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// The product API on WebFlux and R2DBC, served from the event loop without blocking a thread per request
+@RestController
+@RequestMapping("/products")
+@Profile("reactive")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+    private final LlmService llmService;
+
+    public ReactiveProductController(ReactiveProductService productService, LlmService llmService) {
+        this.productService = productService;
+        this.llmService = llmService;
+    }
+
+    @GetMapping("")
+    public Mono<PageResponse<ProductResponse>> findAll(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "12") int pageSize,
+        @RequestParam(defaultValue = "updatedAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String sortOrder,
+        @RequestParam(defaultValue = "") String search
+    ) {
+        return productService.findAll(page, pageSize, sortBy, sortOrder, search)
+            .map(productPage -> PageResponse.of(productPage.map(ProductResponse::from)));
+    }
+
+    @GetMapping("/{slug}")
+    public Mono<ProductResponse> findBySlug(@PathVariable String slug) {
+        return productService.findBySlug(slug).map(ProductResponse::from);
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("")
+    public Mono<ProductResponse> create(@Valid @RequestBody Product product) {
+        return productService.create(product).map(ProductResponse::from);
+    }
+
+    @ResponseStatus(HttpStatus.OK)
+    @PutMapping("/{slug}")
+    public Mono<ProductResponse> update(@RequestBody Product product, @PathVariable String slug) {
+        return productService.update(slug, product).map(ProductResponse::from);
+    }
+
+    @ResponseStatus(HttpStatus.OK)
+    @DeleteMapping("/{slug}")
+    public Mono<String> delete(@PathVariable String slug) {
+        return productService.delete(slug)
+            .map(existingProduct -> String.format("Deleted %s successfully!", existingProduct.getName()));
+    }
+
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("/generate-description")
+    public Mono<String> generateDescription(@RequestBody LlmRequest body) {
+        validateProductName(body);
+
+        return llmService.describe(body.name());
+    }
+
+    @PostMapping(value = "/generate-description/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamDescription(@RequestBody LlmRequest body) {
+        validateProductName(body);
+
+        return llmService.streamDescription(body.name())
+            .map(token -> ServerSentEvent.builder(token).build())
+            .concatWith(Mono.just(ServerSentEvent.<String>builder().event("done").build()));
+    }
+
+    private void validateProductName(LlmRequest body) {
+        if (body == null || body.name() == null || body.name().isEmpty()) {
+            throw new ProductNameNotValidException("Product name is missing, please enter product name before generating description");
+        }
+    }
+}
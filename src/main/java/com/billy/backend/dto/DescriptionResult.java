@@ -0,0 +1,19 @@
+package com.billy.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DescriptionResult(
+    String name,
+    String description,
+    String error,
+    Integer updatedProducts
+) {
+    public static DescriptionResult generated(String name, String description, Integer updatedProducts) {
+        return new DescriptionResult(name, description, null, updatedProducts);
+    }
+
+    public static DescriptionResult failed(String name, String error) {
+        return new DescriptionResult(name, null, error, null);
+    }
+}
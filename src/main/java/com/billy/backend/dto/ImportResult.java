@@ -0,0 +1,14 @@
+package com.billy.backend.dto;
+
+import java.util.List;
+
+public record ImportResult(
+    long received,
+    long inserted,
+    long updated,
+    long rejected,
+    List<ImportError> errors
+) {
+    public record ImportError(int line, String message) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.billy.backend.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+public record PageResponse<T>(
+    List<T> data,
+    Meta meta
+) {
+    public record Meta(Pagination pagination) {
+    }
+
+    public sealed interface Pagination permits OffsetPagination, SlicePagination, CursorPagination {
+    }
+
+    public record OffsetPagination(int page, int pageSize, int pageCount, long total) implements Pagination {
+    }
+
+    // Offset pagination without the totals, for clients that only need to know whether there is a next page
+    public record SlicePagination(int page, int pageSize, boolean hasNext) implements Pagination {
+    }
+
+    public record CursorPagination(int pageSize, boolean hasNext, String nextCursor) implements Pagination {
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(
+            page.getContent(),
+            new Meta(new OffsetPagination(page.getNumber(), page.getSize(), page.getTotalPages(), page.getTotalElements()))
+        );
+    }
+
+    public static <T> PageResponse<T> of(Slice<T> slice) {
+        return new PageResponse<>(
+            slice.getContent(),
+            new Meta(new SlicePagination(slice.getNumber(), slice.getSize(), slice.hasNext()))
+        );
+    }
+
+    public static <T> PageResponse<T> of(List<T> data, int pageSize, boolean hasNext, String nextCursor) {
+        return new PageResponse<>(data, new Meta(new CursorPagination(pageSize, hasNext, nextCursor)));
+    }
+}
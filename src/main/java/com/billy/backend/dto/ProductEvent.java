@@ -0,0 +1,16 @@
+package com.billy.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+// One row of the product_event outbox. product is the row after the change, in the ProductResponse shape, and null
+// for deletes. offset is opaque to clients, they pass it back to resume after this event.
+public record ProductEvent(
+    String offset,
+    String type,
+    String slug,
+    @JsonRawValue String product,
+    LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,10 @@
+package com.billy.backend.dto;
+
+import java.util.List;
+
+// nextOffset is the offset to poll after next, the same one that was passed in when no events arrived
+public record ProductEventBatch(
+    List<ProductEvent> events,
+    String nextOffset
+) {
+}
@@ -0,0 +1,10 @@
+package com.billy.backend.dto;
+
+public record ProductImportRow(
+    String slug,
+    String name,
+    String description,
+    Double price,
+    Integer quantity
+) {
+}
@@ -1,5 +1,7 @@
 package com.billy.backend.dto;
 
+import com.billy.backend.model.Product;
+
 public class ProductResponse {
     private String name;
     private String slug;
@@ -15,6 +17,10 @@ public class ProductResponse {
         this.quantity = quantity;
     }
 
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(product.getName(), product.getSlug(), product.getDescription(), product.getPrice(), product.getQuantity());
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,20 @@
+package com.billy.backend.dto;
+
+import com.billy.backend.model.Product;
+
+// Read-only listing row, selected straight from the columns it needs instead of hydrating a Product
+public record ProductSummary(
+    String name,
+    String slug,
+    String description,
+    Float price,
+    Integer quantity
+) {
+    public static ProductSummary from(Product product, Integer descriptionLength) {
+        String description = product.getDescription();
+        if (description != null && descriptionLength != null && description.length() > descriptionLength) {
+            description = description.substring(0, Math.max(descriptionLength, 0));
+        }
+        return new ProductSummary(product.getName(), product.getSlug(), description, product.getPrice(), product.getQuantity());
+    }
+}
@@ -1,59 +1,122 @@
 package com.billy.backend.exception;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler({ProductNotFoundException.class})
     public ResponseEntity<Object> handleProductNotFoundException(ProductNotFoundException exception) {
-        return ResponseEntity
-                .status(HttpStatus.NOT_FOUND)
-                .body(exception.getMessage());
+        return respond(exception, HttpStatus.NOT_FOUND, exception.getMessage());
     }
 
     @ExceptionHandler({ProductAlreadyExistsException.class})
     public ResponseEntity<Object> handleProductAlreadyExistsException(ProductAlreadyExistsException exception) {
-        return ResponseEntity
-                .status(HttpStatus.CONFLICT)
-                .body(exception.getMessage());
+        return respond(exception, HttpStatus.CONFLICT, exception.getMessage());
     }
 
     @ExceptionHandler({ProductNameNotValidException.class})
     public ResponseEntity<Object> handleProductNameNotValidException(ProductNameNotValidException exception) {
-        return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(exception.getMessage());
+        return respond(exception, HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler({InvalidCursorException.class})
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException exception) {
+        return respond(exception, HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler({InvalidPageSizeException.class})
+    public ResponseEntity<Object> handleInvalidPageSizeException(InvalidPageSizeException exception) {
+        return respond(exception, HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler({ProductImportException.class})
+    public ResponseEntity<Object> handleProductImportException(ProductImportException exception) {
+        return respond(exception, HttpStatus.BAD_REQUEST, exception.getMessage());
+    }
+
+    @ExceptionHandler({LlmUnavailableException.class})
+    public ResponseEntity<Object> handleLlmUnavailableException(LlmUnavailableException exception) {
+        return respond(exception, HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+
+    @ExceptionHandler({PreconditionFailedException.class})
+    public ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException exception) {
+        return respond(exception, HttpStatus.PRECONDITION_FAILED, exception.getMessage());
+    }
+
+    @ExceptionHandler({InsufficientStockException.class})
+    public ResponseEntity<Object> handleInsufficientStockException(InsufficientStockException exception) {
+        return respond(exception, HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @ExceptionHandler({StockLimitExceededException.class})
+    public ResponseEntity<Object> handleStockLimitExceededException(StockLimitExceededException exception) {
+        return respond(exception, HttpStatus.CONFLICT, exception.getMessage());
+    }
+
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        return respond(exception, HttpStatus.CONFLICT, "Product was modified by another request, reload it and try again");
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException exception) {
+        return fieldErrors(exception, exception.getBindingResult().getFieldErrors());
+    }
+
+    // WebFlux counterpart of MethodArgumentNotValidException, thrown under the reactive profile
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleWebExchangeBindException(WebExchangeBindException exception) {
+        return fieldErrors(exception, exception.getFieldErrors());
+    }
+
+    private ResponseEntity<Map<String, String>> fieldErrors(Exception exception, List<FieldError> fieldErrors) {
         Map<String, String> errors = new HashMap<>();
-        exception.getBindingResult().getFieldErrors().forEach(error ->
+        fieldErrors.forEach(error ->
             errors.put(error.getField(), error.getDefaultMessage())
         );
-        return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(errors);
+        return respond(exception, HttpStatus.BAD_REQUEST, errors);
     }
 
     @ExceptionHandler({RuntimeException.class})
     public ResponseEntity<Object> handleRuntimeException(RuntimeException exception) {
-        return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(exception.getMessage());
+        return respond(exception, HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleException(Exception exception) {
+        return respond(exception, HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage());
+    }
+
+    private <T> ResponseEntity<T> respond(Exception exception, HttpStatus status, T body) {
+        Counter.builder("api.errors")
+            .description("Requests answered with an error, by exception type")
+            .tag("exception", exception.getClass().getSimpleName())
+            .tag("status", String.valueOf(status.value()))
+            .register(meterRegistry)
+            .increment();
         return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(exception.getMessage());
+                .status(status)
+                .body(body);
     }
 }
@@ -0,0 +1,7 @@
+package com.billy.backend.exception;
+
+public class LlmUnavailableException extends RuntimeException {
+    public LlmUnavailableException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.billy.backend.exception;
+
+public class ProductImportException extends RuntimeException {
+    public ProductImportException(String message){
+        super(message);
+    }
+}
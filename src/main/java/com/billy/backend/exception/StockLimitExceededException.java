@@ -0,0 +1,7 @@
+package com.billy.backend.exception;
+
+public class StockLimitExceededException extends RuntimeException {
+    public StockLimitExceededException(String message){
+        super(message);
+    }
+}
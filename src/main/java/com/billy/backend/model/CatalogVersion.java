@@ -0,0 +1,8 @@
+package com.billy.backend.model;
+
+// version moves with every committed product write, countVersion only with writes that can change a listing total
+public record CatalogVersion(
+    long version,
+    long countVersion
+) {
+}
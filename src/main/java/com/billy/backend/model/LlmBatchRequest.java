@@ -0,0 +1,10 @@
+package com.billy.backend.model;
+
+import java.util.List;
+
+public record LlmBatchRequest(
+    List<String> names,
+    Integer concurrency,
+    Boolean apply
+) {
+}
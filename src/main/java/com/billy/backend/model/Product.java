@@ -2,6 +2,8 @@ package com.billy.backend.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -10,6 +12,8 @@ import jakarta.validation.constraints.Positive;
 
 @Entity
 @Table(name = "product")
+// Only changed columns are written, so concurrent edits of different fields don't rewrite each other's values
+@DynamicUpdate
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,10 +41,17 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     protected Product() {
     }
 
     public Product(Integer id, String slug, String name, String description, Float price, Integer quantity, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, slug, name, description, price, quantity, createdAt, updatedAt, null);
+    }
+
+    public Product(Integer id, String slug, String name, String description, Float price, Integer quantity, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.slug = slug;
         this.name = name;
@@ -49,6 +60,7 @@ public class Product {
         this.quantity = quantity;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public Integer getId() {
@@ -82,5 +94,9 @@ public class Product {
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
 
@@ -0,0 +1,38 @@
+package com.billy.backend.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+// Optional listing filters, null meaning not filtered on. Also part of the listing count cache key.
+public record ProductFilter(
+    Float minPrice,
+    Float maxPrice,
+    Boolean inStock
+) {
+    public static final ProductFilter NONE = new ProductFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && inStock == null;
+    }
+
+    // Null when there is nothing to filter on, which Specification.and() skips
+    public Specification<Product> toSpecification() {
+        List<Specification<Product>> specifications = new ArrayList<>();
+        if (minPrice != null) {
+            specifications.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+        }
+        if (maxPrice != null) {
+            specifications.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+        }
+        if (inStock != null) {
+            // An inlined 0 rather than a bind parameter, so the planner can match the "WHERE quantity > 0" partial
+            // indexes in schema.sql also on generic plans of prepared statements
+            specifications.add(inStock
+                ? (root, query, cb) -> cb.greaterThan(root.get("quantity"), cb.literal(0))
+                : (root, query, cb) -> cb.or(cb.isNull(root.get("quantity")), cb.equal(root.get("quantity"), cb.literal(0))));
+        }
+        return specifications.isEmpty() ? null : Specification.allOf(specifications);
+    }
+}
@@ -0,0 +1,11 @@
+package com.billy.backend.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record QuantityChangeRequest(
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be a positive value")
+    Integer amount
+) {
+}
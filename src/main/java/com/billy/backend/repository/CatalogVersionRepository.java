@@ -0,0 +1,39 @@
+package com.billy.backend.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import com.billy.backend.model.CatalogVersion;
+
+@Repository
+@Profile("!reactive")
+public class CatalogVersionRepository {
+
+    // Replaces the rows a fold can see by their sum, in one statement so no reader ever sees the total change
+    private static final String FOLD_SQL =
+        "WITH folded AS (DELETE FROM catalog_change RETURNING changes, count_changes) " +
+        "INSERT INTO catalog_change (changes, count_changes) " +
+        "SELECT sum(changes), sum(count_changes) FROM folded HAVING count(*) > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Sums the catalog_change rows the product triggers append, see schema.sql
+    public CatalogVersion current() {
+        return jdbcTemplate.queryForObject(
+            "SELECT coalesce(sum(changes), 0) AS version, coalesce(sum(count_changes), 0) AS count_version FROM catalog_change",
+            (rs, rowNum) -> new CatalogVersion(rs.getLong("version"), rs.getLong("count_version"))
+        );
+    }
+
+    // Keeps current() a read of a handful of rows however many writes there were
+    @Scheduled(fixedDelayString = "${product.catalog-version.fold-interval}")
+    public void fold() {
+        jdbcTemplate.update(FOLD_SQL);
+    }
+}
@@ -0,0 +1,58 @@
+package com.billy.backend.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Rows are keyed by the SHA-256 of the cache key, which embeds the product name and so has no useful upper bound
+@Repository
+public class LlmDescriptionStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // There is no JdbcTemplate under the reactive profile, which only caches descriptions in memory
+    public LlmDescriptionStore(ObjectProvider<JdbcTemplate> jdbcTemplate, @Value("${llm.cache.persistent}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate.getIfAvailable();
+        this.enabled = enabled && this.jdbcTemplate != null;
+    }
+
+    public Optional<String> find(String cacheKey) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(
+            "SELECT description FROM llm_description_cache WHERE cache_key = ?",
+            (rs, rowNum) -> rs.getString("description"),
+            hash(cacheKey)
+        ).stream().findFirst();
+    }
+
+    public void save(String cacheKey, String description) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update(
+            "INSERT INTO llm_description_cache (cache_key, description) VALUES (?, ?) " +
+            "ON CONFLICT (cache_key) DO UPDATE SET description = EXCLUDED.description, created_at = CURRENT_TIMESTAMP",
+            hash(cacheKey),
+            description
+        );
+    }
+
+    private static String hash(String cacheKey) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cacheKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.billy.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.billy.backend.dto.ProductEvent;
+
+@Repository
+@Profile("!reactive")
+public class ProductEventRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Only events of transactions older than the oldest one still running are returned. An in-flight transaction may
+    // have taken a lower id but not committed yet, once it does its events still sort after everything returned here.
+    public List<ProductEvent> findAfter(String txid, long id, int limit) {
+        return jdbcTemplate.query(
+            "SELECT txid::text AS txid, id, type, slug, product::text AS product, occurred_at FROM product_event " +
+            "WHERE (txid, id) > (CAST(? AS xid8), ?) AND txid < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY txid, id LIMIT ?",
+            (rs, rowNum) -> new ProductEvent(
+                rs.getString("txid") + "-" + rs.getLong("id"),
+                rs.getString("type"),
+                rs.getString("slug"),
+                rs.getString("product"),
+                rs.getTimestamp("occurred_at").toLocalDateTime()
+            ),
+            txid, id, limit
+        );
+    }
+
+    public int deleteOlderThan(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM product_event WHERE occurred_at < ?", cutoff);
+    }
+}
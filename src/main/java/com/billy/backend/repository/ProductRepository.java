@@ -1,15 +1,58 @@
 package com.billy.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.billy.backend.model.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product>, ProductSummaryRepository {
+    // Declared finders don't inherit SimpleJpaRepository's read-only transactions, marked so reads can use a replica
+    @Transactional(readOnly = true)
     Optional<Product> findBySlug(String slug);
     Boolean existsBySlug(String slug);
-    Page<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description, Pageable pageable);
+
+    // Hands out 0, 1, 2, ... per base slug in one atomic statement, whatever the number of existing duplicates. The
+    // first allocation for a base starts past the highest suffix already in product (slugs written before the counter
+    // existed), found through idx_product_slug_pattern. A concurrent first allocation falls through to ON CONFLICT.
+    String ALLOCATE_SLUG_SUFFIX_SQL =
+        "WITH bumped AS (" +
+        "  UPDATE slug_counter SET next_suffix = next_suffix + 1 WHERE base = :base RETURNING next_suffix" +
+        "), seeded AS (" +
+        "  INSERT INTO slug_counter (base, next_suffix)" +
+        "  SELECT :base, coalesce((" +
+        "    SELECT max(CASE WHEN slug = :base THEN 0 ELSE CAST(substring(slug FROM length(:base) + 2) AS INTEGER) END) + 1" +
+        "    FROM product WHERE slug = :base OR (slug ~>=~ (:base || '-') AND slug ~<~ (:base || '.')" +
+        "      AND substring(slug FROM length(:base) + 2) ~ '^[0-9]+$' AND length(slug) <= length(:base) + 10)" +
+        "  ), 0)" +
+        "  WHERE NOT EXISTS (SELECT 1 FROM bumped)" +
+        "  ON CONFLICT (base) DO UPDATE SET next_suffix = slug_counter.next_suffix + 1 RETURNING next_suffix" +
+        ") SELECT next_suffix FROM bumped UNION ALL SELECT next_suffix FROM seeded";
+
+    @Transactional
+    @Query(value = ALLOCATE_SLUG_SUFFIX_SQL, nativeQuery = true)
+    Integer allocateSlugSuffix(@Param("base") String base);
+
+    @Transactional
+    @Query(value = "UPDATE product SET description = :description, updated_at = :updatedAt, version = version + 1 WHERE name = :name RETURNING slug", nativeQuery = true)
+    List<String> updateDescriptionByName(@Param("name") String name, @Param("description") String description, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Single conditional statements, so concurrent stock changes neither race nor need a read first.
+    // Empty when the slug doesn't exist or the new quantity wouldn't fit the integer column (2147483647), or, for a
+    // decrement, there isn't enough stock.
+    @Transactional
+    @Query(value = "UPDATE product SET quantity = coalesce(quantity, 0) + :amount, updated_at = :updatedAt, version = version + 1 " +
+        "WHERE slug = :slug AND coalesce(quantity, 0) <= 2147483647 - :amount RETURNING *", nativeQuery = true)
+    Optional<Product> incrementQuantity(@Param("slug") String slug, @Param("amount") int amount, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Query(value = "UPDATE product SET quantity = quantity - :amount, updated_at = :updatedAt, version = version + 1 " +
+        "WHERE slug = :slug AND quantity >= :amount RETURNING *", nativeQuery = true)
+    Optional<Product> decrementQuantity(@Param("slug") String slug, @Param("amount") int amount, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,14 @@
+package com.billy.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.billy.backend.dto.ProductSummary;
+import com.billy.backend.model.Product;
+
+public interface ProductSummaryRepository {
+    // descriptionLength cuts the description down in the query, null returns it whole. No count query is run, totals
+    // come from ProductCountCache.
+    Slice<ProductSummary> findSummaries(Specification<Product> specification, Pageable pageable, Integer descriptionLength);
+}
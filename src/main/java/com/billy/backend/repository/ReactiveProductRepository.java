@@ -0,0 +1,120 @@
+package com.billy.backend.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.billy.backend.model.Product;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// R2DBC counterpart of ProductRepository for the reactive profile. Plain SQL through DatabaseClient, since
+// Product is mapped for JPA. Searches use the same full-text expression as the GIN index.
+@Repository
+@Profile("reactive")
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "id, slug, name, description, price, quantity, created_at, updated_at, version";
+    private static final String SEARCH_CONDITION =
+        " WHERE to_tsvector('english', coalesce(name, '') || ' ' || coalesce(description, '')) @@ websearch_to_tsquery('english', :search)";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // sortColumn must be a column name, it is written into the statement as is
+    public Flux<Product> findAll(String search, String sortColumn, Sort.Direction direction, int limit, long offset) {
+        String sql = "SELECT " + COLUMNS + " FROM product" +
+            (search.isEmpty() ? "" : SEARCH_CONDITION) +
+            " ORDER BY " + sortColumn + " " + direction.name() + ", id " + direction.name() +
+            " LIMIT :limit OFFSET :offset";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+            .bind("limit", limit)
+            .bind("offset", offset);
+        if (!search.isEmpty()) {
+            spec = spec.bind("search", search);
+        }
+        return spec.map(ReactiveProductRepository::toProduct).all();
+    }
+
+    public Mono<Long> count(String search) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT count(*) FROM product" + (search.isEmpty() ? "" : SEARCH_CONDITION));
+        if (!search.isEmpty()) {
+            spec = spec.bind("search", search);
+        }
+        return spec.map(row -> row.get(0, Long.class)).one();
+    }
+
+    public Mono<Product> findBySlug(String slug) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM product WHERE slug = :slug")
+            .bind("slug", slug)
+            .map(ReactiveProductRepository::toProduct)
+            .one();
+    }
+
+    public Mono<Integer> allocateSlugSuffix(String base) {
+        return databaseClient.sql(ProductRepository.ALLOCATE_SLUG_SUFFIX_SQL)
+            .bind("base", base)
+            .map(row -> row.get(0, Integer.class))
+            .one();
+    }
+
+    public Mono<Product> insert(Product product) {
+        return bindValues(databaseClient.sql("INSERT INTO product (slug, name, description, price, quantity, created_at, updated_at) " +
+                "VALUES (:slug, :name, :description, :price, :quantity, :createdAt, :updatedAt) RETURNING " + COLUMNS), product)
+            .map(ReactiveProductRepository::toProduct)
+            .one();
+    }
+
+    // Empty when the row's version no longer matches product's
+    public Mono<Product> update(Product product) {
+        return bindValues(databaseClient.sql("UPDATE product SET slug = :slug, name = :name, description = :description, price = :price, " +
+                "quantity = :quantity, created_at = :createdAt, updated_at = :updatedAt, version = version + 1 " +
+                "WHERE id = :id AND version = :version RETURNING " + COLUMNS), product)
+            .bind("id", product.getId())
+            .bind("version", product.getVersion())
+            .map(ReactiveProductRepository::toProduct)
+            .one();
+    }
+
+    public Mono<Long> deleteById(Integer id) {
+        return databaseClient.sql("DELETE FROM product WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindValues(DatabaseClient.GenericExecuteSpec spec, Product product) {
+        spec = spec.bind("slug", product.getSlug())
+            .bind("name", product.getName())
+            .bind("price", product.getPrice())
+            .bind("createdAt", product.getCreatedAt())
+            .bind("updatedAt", product.getUpdatedAt());
+        spec = product.getDescription() == null ? spec.bindNull("description", String.class) : spec.bind("description", product.getDescription());
+        spec = product.getQuantity() == null ? spec.bindNull("quantity", Integer.class) : spec.bind("quantity", product.getQuantity());
+        return spec;
+    }
+
+    private static Product toProduct(Readable row) {
+        Double price = row.get("price", Double.class);
+        return new Product(
+            row.get("id", Integer.class),
+            row.get("slug", String.class),
+            row.get("name", String.class),
+            row.get("description", String.class),
+            price == null ? null : price.floatValue(),
+            row.get("quantity", Integer.class),
+            row.get("created_at", LocalDateTime.class),
+            row.get("updated_at", LocalDateTime.class),
+            row.get("version", Long.class)
+        );
+    }
+}
@@ -0,0 +1,105 @@
+package com.billy.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.config.RateLimitFilter;
+import com.billy.backend.config.RateLimiter;
+import com.billy.backend.dto.DescriptionResult;
+import com.billy.backend.exception.ProductNameNotValidException;
+import com.billy.backend.model.LlmBatchRequest;
+import com.billy.backend.repository.ProductRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@Profile("!reactive")
+public class DescriptionBatchService {
+
+    private final LlmService llmService;
+    private final ProductRepository repository;
+    private final ProductCache productCache;
+    private final RateLimiter rateLimiter;
+    private final int maxConcurrency;
+    private final int maxNames;
+
+    public DescriptionBatchService(
+        LlmService llmService,
+        ProductRepository repository,
+        ProductCache productCache,
+        Optional<RateLimiter> rateLimiter,
+        @Value("${llm.batch.max-concurrency}") int maxConcurrency,
+        @Value("${llm.batch.max-names}") int maxNames
+    ) {
+        this.llmService = llmService;
+        this.repository = repository;
+        this.productCache = productCache;
+        this.rateLimiter = rateLimiter.orElse(null);
+        this.maxConcurrency = maxConcurrency;
+        this.maxNames = maxNames;
+    }
+
+    public Flux<DescriptionResult> generate(LlmBatchRequest request, String client) {
+        if (request == null) {
+            throw new ProductNameNotValidException("Product names are missing, please enter at least one product name");
+        }
+        return generate(request.names(), request.concurrency(), Boolean.TRUE.equals(request.apply()), client);
+    }
+
+    // Results are emitted in completion order, and a failed name is reported on its own line instead of failing the batch.
+    // Each name spends one of the client's LLM tokens as it starts, client is null when requests aren't rate limited.
+    public Flux<DescriptionResult> generate(List<String> names, Integer concurrency, boolean apply, String client) {
+        if (names == null || names.isEmpty()) {
+            throw new ProductNameNotValidException("Product names are missing, please enter at least one product name");
+        }
+        if (names.size() > maxNames) {
+            throw new ProductNameNotValidException("A batch can contain at most " + maxNames + " product names");
+        }
+
+        int parallelism = concurrency == null ? maxConcurrency : Math.max(1, Math.min(concurrency, maxConcurrency));
+
+        return Flux.fromIterable(names)
+            .flatMap(name -> Mono.defer(() -> generate(name, apply, client)), parallelism);
+    }
+
+    private Mono<DescriptionResult> generate(String name, boolean apply, String client) {
+        if (name == null || name.isBlank()) {
+            return Mono.just(DescriptionResult.failed(name, "Product name is missing"));
+        }
+        if (rateLimiter != null && client != null) {
+            Duration retryAfter = rateLimiter.tryAcquire(RateLimiter.Tier.LLM, client);
+            if (!retryAfter.isZero()) {
+                return Mono.just(DescriptionResult.failed(name, "Too many requests, try again in " + RateLimitFilter.retryAfterSeconds(retryAfter) + "s"));
+            }
+        }
+
+        // An empty generation is a failure, applying it would wipe the description of every product with this name
+        return llmService.describe(name)
+            .flatMap(description -> {
+                if (description.isBlank()) {
+                    return Mono.just(DescriptionResult.failed(name, "No description was generated"));
+                }
+                return apply
+                    ? applyDescription(name, description)
+                    : Mono.just(DescriptionResult.generated(name, description, null));
+            })
+            .onErrorResume(e -> Mono.just(DescriptionResult.failed(name, e.getMessage())));
+    }
+
+    private Mono<DescriptionResult> applyDescription(String name, String description) {
+        return Mono.fromCallable(() -> {
+                List<String> slugs = repository.updateDescriptionByName(name, description, LocalDateTime.now());
+                slugs.forEach(productCache::invalidate);
+                return DescriptionResult.generated(name, description, slugs.size());
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,55 @@
+package com.billy.backend.service;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.dto.ProductSummary;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+
+import jakarta.persistence.criteria.Expression;
+
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "fulltext", matchIfMissing = true)
+public class FullTextProductSearchEngine implements ProductSearchEngine {
+
+    private final ProductRepository repository;
+
+    public FullTextProductSearchEngine(ProductRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Slice<ProductSummary> search(String search, Specification<Product> filter, Pageable pageable, Integer descriptionLength) {
+        return repository.findSummaries(matching(search, pageable.getSort().isUnsorted()).and(filter), pageable, descriptionLength);
+    }
+
+    @Override
+    public Specification<Product> matching(String search) {
+        return matching(search, false);
+    }
+
+    private Specification<Product> matching(String search, boolean rankByRelevance) {
+        return (root, query, cb) -> {
+            Expression<String> name = root.get("name");
+            Expression<String> description = root.get("description");
+            Expression<String> term = ((HibernateCriteriaBuilder) cb).value(search);
+
+            // The pageable sort is only applied when there is one, so an unsorted page keeps this ordering
+            if (rankByRelevance && !Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                    cb.desc(cb.function("fts_rank", Double.class, name, description, term)),
+                    cb.asc(root.get("id"))
+                );
+            }
+
+            return cb.isTrue(cb.function("fts_match", Boolean.class, name, description, term));
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.billy.backend.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.dto.ProductSummary;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "like")
+public class LikeProductSearchEngine implements ProductSearchEngine {
+
+    private static final char ESCAPE = '\\';
+
+    private final ProductRepository repository;
+
+    public LikeProductSearchEngine(ProductRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Slice<ProductSummary> search(String search, Specification<Product> filter, Pageable pageable, Integer descriptionLength) {
+        return repository.findSummaries(matching(search).and(filter), pageable, descriptionLength);
+    }
+
+    // The search is matched literally, as the derived ContainingIgnoreCase query did: %, _ and the escape character
+    // itself are escaped rather than acting as wildcards
+    @Override
+    public Specification<Product> matching(String search) {
+        String pattern = "%" + escapeLike(search.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.or(
+            cb.like(cb.lower(root.get("name")), pattern, ESCAPE),
+            cb.like(cb.lower(root.get("description")), pattern, ESCAPE)
+        );
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,83 @@
+package com.billy.backend.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.billy.backend.exception.LlmUnavailableException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Guards upstream LLM calls so a slow or failing endpoint is cut off quickly instead of tying up request threads.
+// Instances are configured under resilience4j.*.instances.llm and publish their metrics through Micrometer.
+@Component
+public class LlmResilience {
+
+    private static final String INSTANCE_NAME = "llm";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final Duration attemptTimeout;
+    private final Duration generationTimeout;
+
+    public LlmResilience(
+        CircuitBreakerRegistry circuitBreakerRegistry,
+        BulkheadRegistry bulkheadRegistry,
+        RetryRegistry retryRegistry,
+        @Value("${llm.attempt-timeout}") Duration attemptTimeout,
+        @Value("${llm.generation-timeout}") Duration generationTimeout
+    ) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE_NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE_NAME);
+        this.retry = retryRegistry.retry(INSTANCE_NAME);
+        this.attemptTimeout = attemptTimeout;
+        this.generationTimeout = generationTimeout;
+    }
+
+    // Whole generations can be retried because nothing has been handed to the caller yet. Each attempt is bounded by
+    // attemptTimeout, and the generation as a whole, retries and backoff included, by generationTimeout.
+    public <T> Mono<T> protect(Mono<T> call) {
+        return call
+            .timeout(attemptTimeout)
+            .transformDeferred(BulkheadOperator.of(bulkhead))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .transformDeferred(RetryOperator.of(retry))
+            .timeout(generationTimeout)
+            .onErrorMap(this::toUnavailable);
+    }
+
+    // Streams are not retried since tokens may already have reached the client; stalls are bounded by the read timeout
+    public <T> Flux<T> protect(Flux<T> call) {
+        return call
+            .transformDeferred(BulkheadOperator.of(bulkhead))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .onErrorMap(this::toUnavailable);
+    }
+
+    private Throwable toUnavailable(Throwable exception) {
+        if (exception instanceof LlmUnavailableException) {
+            return exception;
+        }
+        if (exception instanceof CallNotPermittedException) {
+            return new LlmUnavailableException("Description generation is temporarily unavailable, please try again later");
+        }
+        if (exception instanceof BulkheadFullException) {
+            return new LlmUnavailableException("Too many descriptions are being generated, please try again later");
+        }
+        return new LlmUnavailableException("Chat Completion API " + exception.getMessage());
+    }
+}
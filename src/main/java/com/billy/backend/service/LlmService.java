@@ -1,82 +1,351 @@
 package com.billy.backend.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.billy.backend.exception.LlmUnavailableException;
+import com.billy.backend.repository.LlmDescriptionStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class LlmService {
-    
+
     private final WebClient webClient;
-    private static final String NVIDIA_API_BASE_URL = "https://integrate.api.nvidia.com";
+    private final LlmDescriptionStore descriptionStore;
+    private final AsyncCache<String, String> descriptionCache;
+    private final LlmResilience resilience;
+    private final MeterRegistry meterRegistry;
+    private final Timer timeToFirstToken;
+    private final DistributionSummary tokensStreamed;
+    private final DistributionSummary promptBatchSize;
+    private final Sinks.Many<PendingDescription> pendingDescriptions;
+    private static final Logger log = LoggerFactory.getLogger(LlmService.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String DESCRIPTION_PROMPT = "You are an AI that helps sellers create product descriptions. The user will provide a product name, and you will return a short, precise, and customer-focused product description. Just return the product description without quoting the response.\n\nProduct name: ";
+    private static final String BATCH_DESCRIPTION_PROMPT = "You are an AI that helps sellers create product descriptions. The user will provide a JSON array of product names, and you will return a short, precise, and customer-focused product description for each of them. Return only a JSON array of strings with one description per product name, in the same order, without any other text.\n\nProduct names: ";
     private static final String CHAT_COMPLETION_URI = "/v1/chat/completions";
+    private static final String MODEL = "meta/llama-3.1-405b-instruct";
+    private static final double TEMPERATURE = 0.2;
+    private static final double TOP_P = 0.7;
+    private static final int MAX_TOKENS = 1024;
     @Value("${api.key}")
     private String apiKey;
 
-    public LlmService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl(NVIDIA_API_BASE_URL).build();
+    public LlmService(
+        WebClient.Builder webClientBuilder,
+        @Value("${llm.base-url}") String baseUrl,
+        LlmDescriptionStore descriptionStore,
+        LlmResilience resilience,
+        @Value("${llm.cache.maximum-size}") long cacheMaximumSize,
+        @Value("${llm.cache.expire-after-write}") Duration cacheExpireAfterWrite,
+        @Qualifier("applicationTaskExecutor") Executor executor,
+        MeterRegistry meterRegistry,
+        @Value("${llm.prompt-batch.max-size}") int promptBatchMaxSize,
+        @Value("${llm.prompt-batch.max-wait}") Duration promptBatchMaxWait
+    ) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.descriptionStore = descriptionStore;
+        this.resilience = resilience;
+        this.meterRegistry = meterRegistry;
+        this.timeToFirstToken = Timer.builder("llm.time-to-first-token")
+            .description("Time from sending a completion request until the first token arrives")
+            .register(meterRegistry);
+        this.tokensStreamed = DistributionSummary.builder("llm.tokens")
+            .description("Tokens streamed back per completion request")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+        this.promptBatchSize = DistributionSummary.builder("llm.prompt-batch.size")
+            .description("Product names sent per completion request")
+            .register(meterRegistry);
+        this.descriptionCache = Caffeine.newBuilder()
+            .maximumSize(cacheMaximumSize)
+            .expireAfterWrite(cacheExpireAfterWrite)
+            .recordStats()
+            // Loads block on the description store, keep them off the common pool. With virtual threads enabled
+            // the application task executor hands out a virtual thread per task.
+            .executor(executor)
+            .buildAsync();
+
+        // Generations that don't stream are collected for up to promptBatchMaxWait and sent as one prompt of up to
+        // promptBatchMaxSize names, sharing the instruction preamble and the round trip. A size of 1 sends each alone.
+        if (promptBatchMaxSize > 1) {
+            this.pendingDescriptions = Sinks.many().unicast().onBackpressureBuffer();
+            this.pendingDescriptions.asFlux()
+                .bufferTimeout(promptBatchMaxSize, promptBatchMaxWait)
+                // Off the emitting thread, a caller completed synchronously could otherwise emit again from within
+                // emitNext, which the sink rejects
+                .publishOn(Schedulers.parallel())
+                .flatMap(this::requestBatch)
+                .subscribe();
+        } else {
+            this.pendingDescriptions = null;
+        }
     }
 
+    // Concurrent calls for the same key share one in-flight future, so duplicate clicks cost a single upstream call.
+    // Failed or empty generations complete without a value and are dropped from the cache.
     public String chatCompletionApi(String productName) {
         try {
-            String requestBody = String.format(
-                "{\n" +
-                "  \"messages\": [\n" +
-                "    {\n" +
-                "      \"role\": \"user\",\n" +
-                "      \"content\": \"You are an AI that helps sellers create product descriptions. The user will provide a product name, and you will return a short, precise, and customer-focused product description. Just return the product description without quoting the response.\\n\\nProduct name: %s\"\n" +
-                "    }\n" +
-                "  ],\n" +
-                "  \"model\": \"meta/llama-3.1-405b-instruct\",\n" +
-                "  \"temperature\": 0.2,\n" +
-                "  \"top_p\": 0.7,\n" +
-                "  \"frequency_penalty\": 0,\n" +
-                "  \"presence_penalty\": 0,\n" +
-                "  \"max_tokens\": 1024,\n" +
-                "  \"stream\": true\n" +
-                "}", productName);
-
-            StringBuilder contentBuilder = new StringBuilder();
-
-            Mono<Void> response = webClient.post()
+            String description = descriptionCache
+                .get(cacheKey(productName), (key, executor) -> loadDescription(key, productName, executor))
+                .join();
+            return description == null ? "" : description;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof LlmUnavailableException unavailableException) {
+                throw unavailableException;
+            }
+            throw e;
+        }
+    }
+
+    public Mono<String> describe(String productName) {
+        return Mono.fromFuture(() -> descriptionCache.get(cacheKey(productName), (key, executor) -> loadDescription(key, productName, executor)))
+            .defaultIfEmpty("");
+    }
+
+    // Cached or in-flight descriptions are replayed, otherwise tokens are relayed as they arrive and the
+    // completed description is cached once the stream finishes
+    public Flux<String> streamDescription(String productName) {
+        String key = cacheKey(productName);
+        CompletableFuture<String> cached = descriptionCache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.fromFuture(cached).flux();
+        }
+
+        StringBuilder contentBuilder = new StringBuilder();
+        return resilience.protect(requestTokens(productName))
+            .doOnNext(contentBuilder::append)
+            .doOnComplete(() -> cacheDescription(key, contentBuilder.toString()));
+    }
+
+    public long cacheSize() {
+        return descriptionCache.synchronous().estimatedSize();
+    }
+
+    public CacheStats cacheStats() {
+        return descriptionCache.synchronous().stats();
+    }
+
+    private String cacheKey(String productName) {
+        String normalizedName = productName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return String.join("|", MODEL, String.valueOf(TEMPERATURE), String.valueOf(TOP_P), String.valueOf(MAX_TOKENS), normalizedName);
+    }
+
+    private CompletableFuture<String> loadDescription(String key, String productName, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> descriptionStore.find(key), executor)
+            .thenCompose(stored -> stored
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> requestDescription(productName)
+                    .filter(description -> !description.isBlank())
+                    .doOnNext(description -> storeDescription(key, description))
+                    .toFuture()));
+    }
+
+    private void cacheDescription(String key, String description) {
+        if (description.isBlank()) {
+            return;
+        }
+        descriptionCache.put(key, CompletableFuture.completedFuture(description));
+        storeDescription(key, description);
+    }
+
+    // The store can be a JDBC write, which must not run on the WebClient event loop the description arrives on. A failed
+    // write only costs a regeneration after a restart, so it is logged rather than surfaced.
+    private void storeDescription(String key, String description) {
+        Mono.fromRunnable(() -> descriptionStore.save(key, description))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, error -> log.warn("Could not store the description for {}", key, error));
+    }
+
+    private Mono<String> requestDescription(String productName) {
+        if (pendingDescriptions == null) {
+            return requestCompletion(productName);
+        }
+        CompletableFuture<String> description = new CompletableFuture<>();
+        // Spins while another thread is emitting. The handler keeps its deadline, so it can't be shared.
+        pendingDescriptions.emitNext(new PendingDescription(productName, description), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        return Mono.fromFuture(description);
+    }
+
+    // Completes every caller in the batch and never fails itself, which would end the batching stage
+    private Mono<Void> requestBatch(List<PendingDescription> batch) {
+        promptBatchSize.record(batch.size());
+        if (batch.size() == 1) {
+            return complete(batch.get(0), requestCompletion(batch.get(0).productName()));
+        }
+
+        List<String> productNames = batch.stream().map(PendingDescription::productName).toList();
+        return resilience.protect(requestTokens(BATCH_DESCRIPTION_PROMPT + toJson(productNames), MAX_TOKENS * batch.size()).collect(Collectors.joining()))
+            .flatMap(content -> {
+                List<String> descriptions = parseBatch(content, batch.size());
+                if (descriptions == null) {
+                    // Not the array that was asked for, ask for each name on its own instead
+                    return Flux.fromIterable(batch)
+                        .flatMap(pending -> complete(pending, requestCompletion(pending.productName())))
+                        .then();
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).description().complete(descriptions.get(i));
+                }
+                return Mono.<Void>empty();
+            })
+            .onErrorResume(error -> {
+                batch.forEach(pending -> pending.description().completeExceptionally(error));
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> complete(PendingDescription pending, Mono<String> description) {
+        return description
+            .defaultIfEmpty("")
+            .doOnNext(pending.description()::complete)
+            .doOnError(pending.description()::completeExceptionally)
+            .onErrorResume(error -> Mono.empty())
+            .then();
+    }
+
+    // The descriptions in order, or null when the reply isn't a JSON array with one non-blank string per name. Models
+    // tend to wrap the array in a markdown code fence, so only the outermost brackets are parsed.
+    private List<String> parseBatch(String content, int size) {
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start < 0 || end < start) {
+            return null;
+        }
+        try {
+            String[] descriptions = JSON.readValue(content.substring(start, end + 1), String[].class);
+            if (descriptions.length != size || Arrays.stream(descriptions).anyMatch(description -> description == null || description.isBlank())) {
+                return null;
+            }
+            return List.of(descriptions);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private Mono<String> requestCompletion(String productName) {
+        return resilience.protect(requestTokens(productName).collect(Collectors.joining()));
+    }
+
+    private Flux<String> requestTokens(String productName) {
+        return requestTokens(DESCRIPTION_PROMPT + productName, MAX_TOKENS);
+    }
+
+    private Flux<String> requestTokens(String prompt, int maxTokens) {
+        String requestBody = String.format(
+            "{\n" +
+            "  \"messages\": [\n" +
+            "    {\n" +
+            "      \"role\": \"user\",\n" +
+            "      \"content\": %s\n" +
+            "    }\n" +
+            "  ],\n" +
+            "  \"model\": \"%s\",\n" +
+            "  \"temperature\": %s,\n" +
+            "  \"top_p\": %s,\n" +
+            "  \"frequency_penalty\": 0,\n" +
+            "  \"presence_penalty\": 0,\n" +
+            "  \"max_tokens\": %d,\n" +
+            "  \"stream\": true\n" +
+            "}", toJson(prompt), MODEL, TEMPERATURE, TOP_P, maxTokens);
+
+        return Flux.defer(() -> {
+            LlmStreamParser parser = new LlmStreamParser();
+
+            return webClient.post()
                 .uri(CHAT_COMPLETION_URI)
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
                 .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .bodyValue(requestBody)
                 .retrieve()
-                .bodyToFlux(String.class)
-                .doOnNext(chunk -> {
-                    String content = extractContentFromChunk(chunk);
-                    if (content != null) {
-                        contentBuilder.append(content);
+                .bodyToFlux(DataBuffer.class)
+                .concatMapIterable(buffer -> parseBuffer(parser, buffer))
+                .concatWith(Flux.defer(() -> Flux.fromIterable(parser.finish())))
+                .transform(this::recordMetrics);
+        });
+    }
+
+    // Measured per upstream attempt, so retries and timeouts show up as separate samples
+    private Flux<String> recordMetrics(Flux<String> tokens) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long start = System.nanoTime();
+            AtomicInteger tokenCount = new AtomicInteger();
+
+            return tokens
+                .doOnNext(token -> {
+                    if (tokenCount.getAndIncrement() == 0) {
+                        timeToFirstToken.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                     }
                 })
-                .then();
+                // Not doFinally, which runs after the signal reached the subscriber
+                .doOnComplete(() -> recordGeneration(sample, tokenCount.get(), "success"))
+                .doOnError(error -> recordGeneration(sample, tokenCount.get(), "error"))
+                .doOnCancel(() -> recordGeneration(sample, tokenCount.get(), "cancelled"));
+        });
+    }
 
-            response.block();
+    private void recordGeneration(Timer.Sample sample, int tokens, String outcome) {
+        sample.stop(Timer.builder("llm.generation")
+            .description("Duration of a completion request, until the stream ends")
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+        tokensStreamed.record(tokens);
+    }
 
-            return contentBuilder.toString();
-        } catch (WebClientResponseException e) {
-            return "~ Error: Chat Completion API " + e.getMessage(); 
+    private static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
         }
     }
 
-    private String extractContentFromChunk(String chunk) {
-        int contentStart = chunk.indexOf("\"content\":\"");
-        if (contentStart == -1) {
-            return null;
+    private List<String> parseBuffer(LlmStreamParser parser, DataBuffer buffer) {
+        try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+            List<String> tokens = new ArrayList<>();
+            while (byteBuffers.hasNext()) {
+                tokens.addAll(parser.feed(byteBuffers.next()));
+            }
+            return tokens;
+        } finally {
+            DataBufferUtils.release(buffer);
         }
-        contentStart += "\"content\":\"".length();
-        int contentEnd = chunk.indexOf("\"", contentStart);
-        if (contentEnd == -1) {
-            return null;
-        }
-        return chunk.substring(contentStart, contentEnd);
+    }
+
+    private record PendingDescription(String productName, CompletableFuture<String> description) {
     }
 }
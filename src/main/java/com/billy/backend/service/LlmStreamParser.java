@@ -0,0 +1,240 @@
+package com.billy.backend.service;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incremental parser for the chat completion SSE stream. Network frames can split lines, events and
+// even multi-byte characters, so partial input is buffered until a full event has been read.
+// Not thread safe, create one per upstream response.
+public class LlmStreamParser {
+
+    private static final String DATA_FIELD = "data:";
+    private static final String DONE_MARKER = "[DONE]";
+    private static final String CONTENT_KEY = "\"content\"";
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer leftoverBytes = ByteBuffer.allocate(8);
+    private CharBuffer chars = CharBuffer.allocate(1024);
+    private final StringBuilder line = new StringBuilder(256);
+    private final StringBuilder data = new StringBuilder(256);
+    private boolean skipLineFeed;
+    private boolean done;
+
+    public List<String> feed(ByteBuffer bytes) {
+        ByteBuffer input = bytes;
+        if (leftoverBytes.position() > 0) {
+            leftoverBytes.flip();
+            input = ByteBuffer.allocate(leftoverBytes.remaining() + bytes.remaining());
+            input.put(leftoverBytes).put(bytes).flip();
+            leftoverBytes.clear();
+        }
+
+        if (chars.capacity() < input.remaining()) {
+            chars = CharBuffer.allocate(input.remaining());
+        }
+        chars.clear();
+        decoder.decode(input, chars, false);
+        chars.flip();
+
+        // At most one incomplete UTF-8 sequence is left over for the next frame
+        leftoverBytes.put(input);
+
+        return feed(chars);
+    }
+
+    public List<String> feed(CharSequence text) {
+        if (text instanceof CharBuffer buffer && buffer.hasArray()) {
+            return feed(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        char[] array = text.toString().toCharArray();
+        return feed(array, 0, array.length);
+    }
+
+    private List<String> feed(char[] text, int offset, int length) {
+        List<String> tokens = null;
+        int end = offset + length;
+        int segmentStart = offset;
+
+        for (int i = offset; i < end; i++) {
+            char c = text[i];
+            if (c != '\n' && c != '\r') {
+                continue;
+            }
+
+            // "\r\n" ends a single line, even when the two characters arrive in different frames
+            boolean lineFeedAfterCarriageReturn = c == '\n' && skipLineFeed && i == segmentStart;
+            line.append(text, segmentStart, i - segmentStart);
+            segmentStart = i + 1;
+            skipLineFeed = c == '\r';
+
+            if (!lineFeedAfterCarriageReturn) {
+                tokens = processLine(tokens);
+            }
+        }
+
+        line.append(text, segmentStart, end - segmentStart);
+        if (segmentStart < end) {
+            skipLineFeed = false;
+        }
+        return tokens == null ? List.of() : tokens;
+    }
+
+    // Dispatches whatever is still buffered when the upstream closes without a trailing blank line
+    public List<String> finish() {
+        List<String> tokens = null;
+        if (line.length() > 0) {
+            tokens = processLine(tokens);
+        }
+        tokens = dispatchEvent(tokens);
+        return tokens == null ? List.of() : tokens;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    private List<String> processLine(List<String> tokens) {
+        if (line.length() == 0) {
+            tokens = dispatchEvent(tokens);
+        } else if (startsWith(line, DATA_FIELD)) {
+            int valueStart = DATA_FIELD.length();
+            if (valueStart < line.length() && line.charAt(valueStart) == ' ') {
+                valueStart++;
+            }
+            if (data.length() > 0) {
+                data.append('\n');
+            }
+            data.append(line, valueStart, line.length());
+        }
+        // Comments (":") and the event, id and retry fields carry nothing we need
+
+        line.setLength(0);
+        return tokens;
+    }
+
+    private List<String> dispatchEvent(List<String> tokens) {
+        if (data.length() == 0) {
+            return tokens;
+        }
+
+        if (DONE_MARKER.contentEquals(data)) {
+            done = true;
+        } else {
+            String content = extractContent(data);
+            if (content != null && !content.isEmpty()) {
+                if (tokens == null) {
+                    tokens = new ArrayList<>(2);
+                }
+                tokens.add(content);
+            }
+        }
+
+        data.setLength(0);
+        return tokens;
+    }
+
+    // Reads the first "content" string value, decoding JSON escapes. Returns null when there is none.
+    public static String extractContent(CharSequence json) {
+        int keyStart = indexOf(json, CONTENT_KEY, 0);
+        while (keyStart != -1) {
+            int position = skipWhitespace(json, keyStart + CONTENT_KEY.length());
+            if (position < json.length() && json.charAt(position) == ':') {
+                position = skipWhitespace(json, position + 1);
+                if (position < json.length() && json.charAt(position) == '"') {
+                    return readString(json, position + 1);
+                }
+                return null;
+            }
+            keyStart = indexOf(json, CONTENT_KEY, keyStart + 1);
+        }
+        return null;
+    }
+
+    private static String readString(CharSequence json, int start) {
+        int end = start;
+        while (end < json.length()) {
+            char c = json.charAt(end);
+            if (c == '"') {
+                return json.subSequence(start, end).toString();
+            }
+            if (c == '\\') {
+                return readEscapedString(json, start);
+            }
+            end++;
+        }
+        return null;
+    }
+
+    private static String readEscapedString(CharSequence json, int start) {
+        StringBuilder result = new StringBuilder(json.length() - start);
+        int i = start;
+        while (i < json.length()) {
+            char c = json.charAt(i++);
+            if (c == '"') {
+                return result.toString();
+            }
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            if (i >= json.length()) {
+                return null;
+            }
+
+            char escaped = json.charAt(i++);
+            switch (escaped) {
+                case 'n' -> result.append('\n');
+                case 'r' -> result.append('\r');
+                case 't' -> result.append('\t');
+                case 'b' -> result.append('\b');
+                case 'f' -> result.append('\f');
+                case 'u' -> {
+                    if (i + 4 > json.length()) {
+                        return null;
+                    }
+                    try {
+                        result.append((char) Integer.parseInt(json, i, i + 4, 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    i += 4;
+                }
+                default -> result.append(escaped);
+            }
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(CharSequence text, int position) {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean startsWith(CharSequence text, String prefix) {
+        if (text.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, String target, int from) {
+        if (text instanceof StringBuilder builder) {
+            return builder.indexOf(target, from);
+        }
+        return text.toString().indexOf(target, from);
+    }
+}
@@ -0,0 +1,68 @@
+package com.billy.backend.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.config.ReplicaRoutingDataSource;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Products by slug. Writes only ever invalidate, never put the row they wrote: a put after the write committed could
+// land after a concurrent delete's invalidate and serve the deleted row until it expires, while the next load always
+// reads what has committed. Each instance has its own cache and only sees its own writes, so on other instances a
+// change shows after at most product.cache.expire-after-write.
+@Service
+@Profile("!reactive")
+public class ProductCache {
+
+    private final ProductRepository repository;
+    private final Cache<String, Product> cache;
+
+    public ProductCache(
+        ProductRepository repository,
+        @Value("${product.cache.maximum-size}") long maximumSize,
+        @Value("${product.cache.expire-after-write}") Duration expireAfterWrite
+    ) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+
+    // Misses are not cached, so a product created after a failed lookup is visible right away.
+    // Caffeine blocks invalidate() on an in-flight load of the same slug, so a delete can't be overwritten by a stale
+    // load. Loads read from the primary, a lagging replica could otherwise put a just deleted or updated row back in
+    // the cache
+    public Optional<Product> findBySlug(String slug) {
+        return Optional.ofNullable(cache.get(slug, key -> {
+            try (ReplicaRoutingDataSource.PrimaryScope scope = ReplicaRoutingDataSource.usePrimary()) {
+                return repository.findBySlug(key).orElse(null);
+            }
+        }));
+    }
+
+    public void invalidate(String slug) {
+        cache.invalidate(slug);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
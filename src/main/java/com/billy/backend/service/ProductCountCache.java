@@ -0,0 +1,53 @@
+package com.billy.backend.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.model.Product;
+import com.billy.backend.model.ProductFilter;
+import com.billy.backend.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Listing totals per search term and filter. Keyed by the catalog count version, which the product triggers move on
+// every write that can change a total (not on stock decrements that leave a product in stock), so a cached total is
+// exact for as long as it can be looked up and never needs invalidating. Totals of older versions age out.
+@Service
+@Profile("!reactive")
+public class ProductCountCache {
+
+    private final ProductRepository repository;
+    private final ProductSearchEngine searchEngine;
+    private final Cache<CountKey, Long> cache;
+
+    public ProductCountCache(
+        ProductRepository repository,
+        ProductSearchEngine searchEngine,
+        @Value("${product.count-cache.maximum-size}") long maximumSize,
+        @Value("${product.count-cache.expire-after-write}") Duration expireAfterWrite
+    ) {
+        this.repository = repository;
+        this.searchEngine = searchEngine;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    public long count(long countVersion, String search, ProductFilter filter) {
+        return cache.get(new CountKey(countVersion, search, filter), key -> {
+            if (search.isEmpty() && filter.isEmpty()) {
+                return repository.count();
+            }
+            Specification<Product> matching = search.isEmpty() ? Specification.where(null) : searchEngine.matching(search);
+            return repository.count(matching.and(filter.toSpecification()));
+        });
+    }
+
+    private record CountKey(long countVersion, String search, ProductFilter filter) {
+    }
+}
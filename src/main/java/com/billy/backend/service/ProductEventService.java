@@ -0,0 +1,89 @@
+package com.billy.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.dto.ProductEvent;
+import com.billy.backend.dto.ProductEventBatch;
+import com.billy.backend.exception.InvalidCursorException;
+import com.billy.backend.repository.ProductEventRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Publishes the product_event outbox. Consumers keep the offset of the last event they processed and resume after
+// it, starting from the oldest retained event when they have none. Events are polled from the table rather than
+// pushed, so every instance serves every change whichever instance wrote it.
+@Service
+@Profile("!reactive")
+public class ProductEventService {
+
+    // Bounded so both parts fit their column types, xid8 and bigint
+    private static final Pattern OFFSET = Pattern.compile("(\\d{1,19})-(\\d{1,18})");
+    private static final String START_OFFSET = "0-0";
+
+    private final ProductEventRepository repository;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retention;
+
+    public ProductEventService(
+        ProductEventRepository repository,
+        @Value("${product.events.batch-size}") int batchSize,
+        @Value("${product.events.poll-interval}") Duration pollInterval,
+        @Value("${product.events.retention}") Duration retention
+    ) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+    }
+
+    public Flux<ProductEvent> stream(String after) {
+        return batches(after).concatMapIterable(ProductEventBatch::events);
+    }
+
+    // Answers as soon as there is at least one event after the offset, or with an empty batch once wait is over
+    public Mono<ProductEventBatch> poll(String after, Duration wait) {
+        String offset = after == null ? START_OFFSET : after;
+        return batches(offset)
+            .filter(batch -> !batch.events().isEmpty())
+            .next()
+            .timeout(wait, Mono.fromSupplier(() -> new ProductEventBatch(List.of(), offset)));
+    }
+
+    @Scheduled(fixedDelayString = "${product.events.purge-interval}")
+    public void purge() {
+        repository.deleteOlderThan(LocalDateTime.now().minus(retention));
+    }
+
+    // A full batch is followed by the next one right away, otherwise the next poll waits for pollInterval
+    private Flux<ProductEventBatch> batches(String after) {
+        return fetch(after == null ? START_OFFSET : after)
+            .expand(batch -> batch.events().size() < batchSize
+                ? fetch(batch.nextOffset()).delaySubscription(pollInterval)
+                : fetch(batch.nextOffset()));
+    }
+
+    private Mono<ProductEventBatch> fetch(String after) {
+        Matcher matcher = OFFSET.matcher(after);
+        if (!matcher.matches()) {
+            throw new InvalidCursorException("Invalid event offset");
+        }
+
+        return Mono.fromCallable(() -> {
+                List<ProductEvent> events = repository.findAfter(matcher.group(1), Long.parseLong(matcher.group(2)), batchSize);
+                return new ProductEventBatch(events, events.isEmpty() ? after : events.get(events.size() - 1).offset());
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+}
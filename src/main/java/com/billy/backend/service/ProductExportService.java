@@ -0,0 +1,86 @@
+package com.billy.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.dto.ProductImportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Writes the whole catalog to a stream in one pass, in the formats ProductImportService reads back. Rows are never
+// collected: CSV is produced by Postgres itself through COPY, NDJSON is read through a cursor fetchSize rows at a time
+// (the Postgres driver only uses a cursor inside a transaction, hence @Transactional).
+@Service
+@Profile("!reactive")
+public class ProductExportService {
+
+    // A product created without a quantity is exported as out of stock, which the import accepts and keyset pages
+    // already sort it as
+    private static final String COLUMNS = "slug, name, description, price, coalesce(quantity, 0) AS quantity";
+    private static final String COPY_SQL = "COPY (SELECT " + COLUMNS + " FROM product ORDER BY id) TO STDOUT WITH (FORMAT csv, HEADER)";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM product ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ProductExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, @Value("${product.export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(OutputStream output) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(COPY_SQL, output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            // One document per line, not Jackson's default space between root values
+            generator.setRootValueSeparator(null);
+            long[] rows = {0};
+            jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                resultSet -> {
+                    try {
+                        generator.writeObject(new ProductImportRow(
+                            resultSet.getString("slug"),
+                            resultSet.getString("name"),
+                            resultSet.getString("description"),
+                            resultSet.getDouble("price"),
+                            resultSet.getInt("quantity")
+                        ));
+                        generator.writeRaw('\n');
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new SQLException("Could not write export", e);
+                    }
+                }
+            );
+            return rows[0];
+        }
+    }
+}
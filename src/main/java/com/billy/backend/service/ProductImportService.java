@@ -0,0 +1,282 @@
+package com.billy.backend.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.dto.ImportResult;
+import com.billy.backend.dto.ImportResult.ImportError;
+import com.billy.backend.dto.ProductImportRow;
+import com.billy.backend.exception.ProductImportException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Streams rows straight into a temp table with COPY, then upserts them on slug with a single INSERT ... SELECT.
+// Neither the request body nor the rows are ever held in memory as a whole.
+@Service
+@Profile("!reactive")
+public class ProductImportService {
+
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int NAME_MAX_LENGTH = 255;
+    private static final int SLUG_MAX_LENGTH = 255;
+
+    // price is staged as REAL so it is rounded to a float like Product.price writes are. A FLOAT would store 19.99
+    // exactly where the app stores 19.99f, and cursors and price filters, which compare floats, would miss the row.
+    private static final String CREATE_STAGING_TABLE_SQL =
+        "CREATE TEMP TABLE product_import (line INTEGER, slug VARCHAR(255), name VARCHAR(255), description TEXT, price REAL, quantity INTEGER) ON COMMIT DROP";
+    private static final String COPY_SQL =
+        "COPY product_import (line, slug, name, description, price, quantity) FROM STDIN WITH (FORMAT csv)";
+    // DISTINCT ON keeps the last row for a slug repeated within the import, ON CONFLICT resolves it against the table
+    private static final String UPSERT_SQL =
+        "WITH upserted AS (" +
+        "  INSERT INTO product (slug, name, description, price, quantity, created_at, updated_at)" +
+        "  SELECT DISTINCT ON (slug) slug, name, description, price, quantity, ?, ? FROM product_import ORDER BY slug, line DESC" +
+        "  ON CONFLICT (slug) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, price = EXCLUDED.price," +
+        "    quantity = EXCLUDED.quantity, updated_at = EXCLUDED.updated_at, version = product.version + 1" +
+        "  RETURNING (xmax = 0) AS inserted" +
+        ") SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM upserted";
+    // Moves the slug counters past every imported slug, so products created later don't collide with them: the slug
+    // itself as a base is taken (suffix 0), and a slug ending in -n takes suffix n of the base before it
+    private static final String ADVANCE_SLUG_COUNTERS_SQL =
+        "INSERT INTO slug_counter (base, next_suffix)" +
+        "  SELECT base, max(suffix) FROM (" +
+        "    SELECT slug AS base, 0 AS suffix FROM product_import" +
+        "    UNION ALL" +
+        "    SELECT substring(slug FROM '^(.*)-[0-9]{1,9}$'), CAST(substring(slug FROM '-([0-9]{1,9})$') AS INTEGER)" +
+        "    FROM product_import WHERE slug ~ '.-[0-9]{1,9}$'" +
+        "  ) imported GROUP BY base" +
+        "  ON CONFLICT (base) DO UPDATE SET next_suffix = greatest(slug_counter.next_suffix, EXCLUDED.next_suffix)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ProductCache productCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.productCache = productCache;
+    }
+
+    @Transactional
+    public ImportResult importProducts(InputStream input, MediaType format) {
+        ImportResult result = jdbcTemplate.execute((ConnectionCallback<ImportResult>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE_SQL);
+            }
+
+            ImportProgress progress = new ImportProgress();
+            try (
+                BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+                Writer copyWriter = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_SQL), StandardCharsets.UTF_8), 1 << 16)
+            ) {
+                if (TEXT_CSV.isCompatibleWith(format)) {
+                    readCsv(reader, copyWriter, progress);
+                } else {
+                    readNdjson(reader, copyWriter, progress);
+                }
+            } catch (IOException e) {
+                throw new ProductImportException("Could not read import: " + e.getMessage());
+            }
+
+            return upsert(connection, progress);
+        });
+
+        // Any cached slug may have been overwritten
+        productCache.invalidateAll();
+        return result;
+    }
+
+    private void readNdjson(BufferedReader reader, Writer copyWriter, ImportProgress progress) throws IOException {
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                stage(objectMapper.readValue(line, ProductImportRow.class), lineNumber, copyWriter, progress);
+            } catch (JsonProcessingException e) {
+                progress.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Writer copyWriter, ImportProgress progress) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("quantity")) {
+            throw new ProductImportException("CSV header must contain name, price and quantity columns");
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            try {
+                ProductImportRow row = new ProductImportRow(
+                    column(record, columns, "slug"),
+                    column(record, columns, "name"),
+                    column(record, columns, "description"),
+                    parseOrNull(column(record, columns, "price"), Double::valueOf),
+                    parseOrNull(column(record, columns, "quantity"), Integer::valueOf)
+                );
+                stage(row, csv.lineNumber(), copyWriter, progress);
+            } catch (NumberFormatException e) {
+                progress.reject(csv.lineNumber(), "Invalid number: " + e.getMessage());
+            }
+        }
+    }
+
+    private void stage(ProductImportRow row, int lineNumber, Writer copyWriter, ImportProgress progress) throws IOException {
+        String error = validate(row);
+        if (error != null) {
+            progress.reject(lineNumber, error);
+            return;
+        }
+
+        String slug = ProductService.slugify(row.slug() == null || row.slug().isBlank() ? row.name() : row.slug());
+        // Checked here rather than left to the staging column, where it would fail the whole COPY
+        if (slug.length() > SLUG_MAX_LENGTH) {
+            progress.reject(lineNumber, "Slug must be at most " + SLUG_MAX_LENGTH + " characters");
+            return;
+        }
+
+        copyWriter.write(Integer.toString(lineNumber));
+        copyWriter.write(',');
+        writeCsvField(copyWriter, slug);
+        copyWriter.write(',');
+        writeCsvField(copyWriter, row.name());
+        copyWriter.write(',');
+        writeCsvField(copyWriter, row.description());
+        copyWriter.write(',');
+        copyWriter.write(Float.toString(row.price().floatValue()));
+        copyWriter.write(',');
+        copyWriter.write(Integer.toString(row.quantity()));
+        copyWriter.write('\n');
+        progress.staged++;
+    }
+
+    private String validate(ProductImportRow row) {
+        if (row.name() == null || row.name().isBlank()) {
+            return "Name is required";
+        }
+        if (row.name().length() > NAME_MAX_LENGTH) {
+            return "Name must be at most " + NAME_MAX_LENGTH + " characters";
+        }
+        if (row.price() == null) {
+            return "Price is required";
+        }
+        // Checked as the float it is staged as, a tiny price would otherwise be stored as zero
+        if (!(row.price().floatValue() > 0)) {
+            return "Price must be a positive value";
+        }
+        if (row.quantity() == null) {
+            return "Quantity is required";
+        }
+        if (row.quantity() < 0) {
+            return "Quantity must be a positive value";
+        }
+        return null;
+    }
+
+    private ImportResult upsert(Connection connection, ImportProgress progress) throws SQLException {
+        long inserted = 0;
+        long updated = 0;
+
+        if (progress.staged > 0) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try (var statement = connection.prepareStatement(UPSERT_SQL)) {
+                statement.setTimestamp(1, now);
+                statement.setTimestamp(2, now);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    inserted = resultSet.getLong(1);
+                    updated = resultSet.getLong(2);
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(ADVANCE_SLUG_COUNTERS_SQL);
+            }
+        }
+
+        return new ImportResult(progress.staged + progress.rejected, inserted, updated, progress.rejected, progress.errors);
+    }
+
+    // COPY csv treats an unquoted empty field as NULL, so empty strings are quoted to keep them apart
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parseOrNull(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value.trim());
+    }
+
+    private static class ImportProgress {
+        private long staged;
+        private long rejected;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        private void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.billy.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+
+import com.billy.backend.exception.InvalidCursorException;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+
+@Service
+@Profile("!reactive")
+public class ProductKeysetService {
+
+    private final ProductRepository repository;
+    private final ProductService productService;
+
+    // quantity and updated_at are nullable and a row value comparison with a NULL is never true, so those rows
+    // would drop out of every page. Both are sorted and sought on a non-null stand-in instead: no quantity counts as
+    // none in stock, a product never updated as updated when it was created. price is sorted and sought as the
+    // float it is read as, so the cursor always equals its own row's key. Expression indexes match these.
+    private static final Map<String, Function<Product, Object>> SORT_KEY_EXTRACTORS = Map.of(
+        "name", Product::getName,
+        "price", Product::getPrice,
+        "quantity", product -> product.getQuantity() != null ? product.getQuantity() : 0,
+        "createdAt", Product::getCreatedAt,
+        "updatedAt", product -> product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt()
+    );
+
+    private static final Map<String, BiFunction<Root<Product>, HibernateCriteriaBuilder, Expression<?>>> SORT_KEY_EXPRESSIONS = Map.of(
+        "name", (root, cb) -> root.get("name"),
+        "price", (root, cb) -> cb.function("keyset_price", Float.class, root.get("price")),
+        "quantity", (root, cb) -> cb.function("keyset_quantity", Integer.class, root.get("quantity")),
+        "createdAt", (root, cb) -> root.get("createdAt"),
+        "updatedAt", (root, cb) -> cb.coalesce(root.<LocalDateTime>get("updatedAt"), root.get("createdAt"))
+    );
+
+    private static final Map<String, Function<String, Object>> SORT_KEY_PARSERS = Map.of(
+        "name", value -> value,
+        "price", Float::valueOf,
+        "quantity", Integer::valueOf,
+        "createdAt", LocalDateTime::parse,
+        "updatedAt", LocalDateTime::parse
+    );
+
+    public ProductKeysetService(ProductRepository repository, ProductService productService) {
+        this.repository = repository;
+        this.productService = productService;
+    }
+
+    // Seeks past the cursor on (sortBy, id) instead of using OFFSET, and skips the count query entirely
+    public Slice<Product> findAll(Specification<Product> specification, String after, int pageSize, String sortBy, String sortOrder) {
+        ProductService.validatePageSize(pageSize);
+        String sortKey = productService.resolveSortBy(sortBy);
+        Sort.Direction direction = productService.createSortDirection(sortOrder);
+
+        // Ordered by the specification rather than a Sort, which can only name properties
+        Specification<Product> keysetSpecification = specification.and(orderedBy(sortKey, direction));
+        if (!after.isEmpty()) {
+            keysetSpecification = keysetSpecification.and(seekPast(decodeCursor(after, sortKey), sortKey, direction));
+        }
+
+        List<Product> products = repository.findBy(keysetSpecification, query -> query
+            .limit(pageSize + 1)
+            .all());
+
+        boolean hasNext = products.size() > pageSize;
+        List<Product> content = hasNext ? products.subList(0, pageSize) : products;
+
+        Sort sort = Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+        return new SliceImpl<>(content, PageRequest.of(0, pageSize, sort), hasNext);
+    }
+
+    public String encodeCursor(Product product, String sortBy) {
+        String sortKey = productService.resolveSortBy(sortBy);
+
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(); DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeUTF(sortKey);
+            output.writeUTF(String.valueOf(SORT_KEY_EXTRACTORS.get(sortKey).apply(product)));
+            output.writeInt(product.getId());
+            output.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private Cursor decodeCursor(String cursor, String sortKey) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            String cursorSortKey = input.readUTF();
+            if (!sortKey.equals(cursorSortKey)) {
+                throw new InvalidCursorException("Cursor was issued for sortBy " + cursorSortKey + ", not " + sortKey);
+            }
+            Object value = SORT_KEY_PARSERS.get(sortKey).apply(input.readUTF());
+            return new Cursor(value, input.readInt());
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException("Cursor " + cursor + " is not valid");
+        }
+    }
+
+    private Specification<Product> orderedBy(String sortKey, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Expression<?> sortExpression = SORT_KEY_EXPRESSIONS.get(sortKey).apply(root, (HibernateCriteriaBuilder) cb);
+            Order sortOrder = direction.isAscending() ? cb.asc(sortExpression) : cb.desc(sortExpression);
+            Order idOrder = direction.isAscending() ? cb.asc(root.get("id")) : cb.desc(root.get("id"));
+            query.orderBy(sortOrder, idOrder);
+            return null;
+        };
+    }
+
+    private Specification<Product> seekPast(Cursor cursor, String sortKey, Sort.Direction direction) {
+        String function = direction.isAscending() ? "keyset_after" : "keyset_before";
+
+        return (root, query, cb) -> {
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            return cb.isTrue(cb.function(function, Boolean.class,
+                SORT_KEY_EXPRESSIONS.get(sortKey).apply(root, hcb), root.get("id"), hcb.value(cursor.value()), hcb.value(cursor.id())));
+        };
+    }
+
+    private record Cursor(Object value, Integer id) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.billy.backend.service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.billy.backend.dto.ProductSummary;
+import com.billy.backend.model.Product;
+
+public interface ProductSearchEngine {
+    // filter narrows the matches further, null for none
+    Slice<ProductSummary> search(String search, Specification<Product> filter, Pageable pageable, Integer descriptionLength);
+
+    Specification<Product> matching(String search);
+}
@@ -2,41 +2,76 @@ package com.billy.backend.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.regex.Pattern;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.billy.backend.exception.InsufficientStockException;
+import com.billy.backend.exception.InvalidPageSizeException;
+import com.billy.backend.exception.ProductAlreadyExistsException;
+import com.billy.backend.exception.ProductNotFoundException;
+import com.billy.backend.exception.StockLimitExceededException;
 import com.billy.backend.model.Product;
 import com.billy.backend.repository.ProductRepository;
 
 @Service
+@Profile("!reactive")
 public class ProductService {
 
     private final ProductRepository repository;
     private static final List<String> VALID_SORT_BY_FIELDS = List.of("name", "price", "quantity", "createdAt", "updatedAt");
     private static final String DEFAULT_SORT_BY = "updatedAt";
+    private static final String RELEVANCE_SORT_BY = "relevance";
+    private static final String SLUG_CONSTRAINT = "product_slug_key";
+    private static final int MAX_SLUG_ATTEMPTS = 10;
+    private static final Pattern NON_SLUG_CHARACTERS = Pattern.compile("[^a-z0-9]+");
 
     public ProductService(ProductRepository repository) {
         this.repository = repository;
     }
 
-    public String slugify(String name) {
-        return name.trim().toLowerCase().replaceAll("[^a-z0-9]+", "-");
+    // Shared with ReactiveProductService, which has no ProductService bean to call
+    public static String slugify(String name) {
+        return NON_SLUG_CHARACTERS.matcher(name.trim().toLowerCase()).replaceAll("-");
     }
 
     public String generateUniqueSlug(String baseSlug) {
-        String slug = baseSlug;
-        int count = 1;
+        int suffix = repository.allocateSlugSuffix(baseSlug);
+        return suffix == 0 ? baseSlug : baseSlug + "-" + suffix;
+    }
 
-        
-        while (repository.existsBySlug(slug)) {
-            slug = baseSlug + "-" + count;
-            count++;
+    // A slug can still be taken by a row the counter doesn't know about (a product whose name slugifies to "base-n"
+    // created after the counter for base was seeded), so a conflict on the slug constraint allocates the next suffix
+    // and tries again
+    public Product saveNewProduct(Product product) {
+        for (int attempt = 1; ; attempt++) {
+            Product newProduct = createProduct(product);
+            try {
+                return repository.save(newProduct);
+            } catch (DataIntegrityViolationException e) {
+                if (!isSlugConflict(e)) {
+                    throw e;
+                }
+                if (attempt >= MAX_SLUG_ATTEMPTS) {
+                    throw new ProductAlreadyExistsException("Could not allocate a unique slug for " + product.getName());
+                }
+            }
         }
+    }
 
-        return slug;
+    private boolean isSlugConflict(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation) {
+                return SLUG_CONSTRAINT.equals(constraintViolation.getConstraintName());
+            }
+        }
+        return false;
     }
 
     public Product createProduct(Product product) {
@@ -64,23 +99,55 @@ public class ProductService {
             product.getPrice() == null ? existingProduct.getPrice() : product.getPrice(),
             product.getQuantity() == null ? existingProduct.getQuantity() : product.getQuantity(),
             existingProduct.getCreatedAt(),
-            LocalDateTime.now()
+            LocalDateTime.now(),
+            // Carried over so the save is rejected if the row changed since existingProduct was read
+            existingProduct.getVersion()
         );
     }
 
+    public Product incrementQuantity(String slug, int amount) {
+        return repository.incrementQuantity(slug, amount, LocalDateTime.now())
+            .orElseThrow(() -> repository.existsBySlug(slug)
+                ? new StockLimitExceededException("Adding " + amount + " to product with slug " + slug + " would exceed the maximum quantity")
+                : new ProductNotFoundException("Product with slug " + slug + " not found"));
+    }
+
+    public Product decrementQuantity(String slug, int amount) {
+        return repository.decrementQuantity(slug, amount, LocalDateTime.now())
+            .orElseThrow(() -> repository.existsBySlug(slug)
+                ? new InsufficientStockException("Not enough stock of product with slug " + slug + " to remove " + amount)
+                : new ProductNotFoundException("Product with slug " + slug + " not found"));
+    }
+
     public Pageable createPageable(int page, int pageSize, String sortBy, String sortOrder) {
+        validatePageSize(pageSize);
+
+        // Left unsorted so the search engine can order by its own ranking
+        if (RELEVANCE_SORT_BY.equals(sortBy)) {
+            return PageRequest.of(page, pageSize);
+        }
+
+        return PageRequest.of(page, pageSize, Sort.by(createSortDirection(sortOrder), resolveSortBy(sortBy)));
+    }
+
+    public static void validatePageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new InvalidPageSizeException("pageSize must be positive, got " + pageSize);
+        }
+    }
+
+    public String resolveSortBy(String sortBy) {
         if (!VALID_SORT_BY_FIELDS.contains(sortBy)) {
-            sortBy = DEFAULT_SORT_BY;
+            return DEFAULT_SORT_BY;
         }
+        return sortBy;
+    }
 
-        Sort.Direction direction;
+    public Sort.Direction createSortDirection(String sortOrder) {
         if ("asc".equalsIgnoreCase(sortOrder)) {
-            direction = Sort.Direction.ASC;
-        } else {
-            direction = Sort.Direction.DESC;
+            return Sort.Direction.ASC;
         }
-
-        return PageRequest.of(page, pageSize, Sort.by(direction, sortBy));
+        return Sort.Direction.DESC;
     }
 
 }
@@ -0,0 +1,116 @@
+package com.billy.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.billy.backend.exception.ProductAlreadyExistsException;
+import com.billy.backend.exception.ProductNotFoundException;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ReactiveProductRepository;
+
+import io.r2dbc.postgresql.api.PostgresqlException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+// ProductService for the reactive profile, same slug allocation and update rules on top of R2DBC
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository repository;
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "name", "name",
+        "price", "price",
+        "quantity", "quantity",
+        "createdAt", "created_at",
+        "updatedAt", "updated_at"
+    );
+    private static final String DEFAULT_SORT_COLUMN = "updated_at";
+    private static final String SLUG_CONSTRAINT = "product_slug_key";
+    private static final int MAX_SLUG_ATTEMPTS = 10;
+
+    public ReactiveProductService(ReactiveProductRepository repository) {
+        this.repository = repository;
+    }
+
+    public Mono<Page<Product>> findAll(int page, int pageSize, String sortBy, String sortOrder, String search) {
+        String sortColumn = SORT_COLUMNS.getOrDefault(sortBy, DEFAULT_SORT_COLUMN);
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        ProductService.validatePageSize(pageSize);
+        PageRequest pageable = PageRequest.of(page, pageSize);
+
+        return Mono.zip(
+                repository.findAll(search, sortColumn, direction, pageSize, pageable.getOffset()).collectList(),
+                repository.count(search))
+            .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Mono<Product> findBySlug(String slug) {
+        return repository.findBySlug(slug)
+            .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product with slug " + slug + " not found")));
+    }
+
+    public Mono<Product> create(Product product) {
+        String baseSlug = ProductService.slugify(product.getName());
+
+        return Mono.defer(() -> repository.allocateSlugSuffix(baseSlug))
+            .map(suffix -> suffix == 0 ? baseSlug : baseSlug + "-" + suffix)
+            .flatMap(slug -> repository.insert(new Product(
+                null,
+                slug,
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getQuantity(),
+                LocalDateTime.now(),
+                LocalDateTime.now()
+            )))
+            // A slug the counter doesn't know about can still be taken, allocate the next suffix and try again
+            .retryWhen(Retry.max(MAX_SLUG_ATTEMPTS - 1)
+                .filter(this::isSlugConflict)
+                .onRetryExhaustedThrow((spec, signal) ->
+                    new ProductAlreadyExistsException("Could not allocate a unique slug for " + product.getName())));
+    }
+
+    public Mono<Product> update(String slug, Product product) {
+        return findBySlug(slug)
+            .flatMap(existingProduct -> repository.update(new Product(
+                existingProduct.getId(),
+                existingProduct.getSlug(),
+                product.getName() == null ? existingProduct.getName() : product.getName(),
+                product.getDescription() == null ? existingProduct.getDescription() : product.getDescription(),
+                product.getPrice() == null ? existingProduct.getPrice() : product.getPrice(),
+                product.getQuantity() == null ? existingProduct.getQuantity() : product.getQuantity(),
+                existingProduct.getCreatedAt(),
+                LocalDateTime.now(),
+                existingProduct.getVersion()
+            )))
+            .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException("Product with slug " + slug + " was modified concurrently")));
+    }
+
+    public Mono<Product> delete(String slug) {
+        return findBySlug(slug)
+            .flatMap(existingProduct -> repository.deleteById(existingProduct.getId()).thenReturn(existingProduct));
+    }
+
+    private boolean isSlugConflict(Throwable exception) {
+        if (!(exception instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PostgresqlException postgresqlException) {
+                return SLUG_CONSTRAINT.equals(postgresqlException.getErrorDetails().getConstraintName().orElse(null));
+            }
+        }
+        return false;
+    }
+}
@@ -8,3 +8,112 @@ CREATE TABLE IF NOT EXISTS Product (
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP
 );
+
+CREATE INDEX IF NOT EXISTS idx_product_search ON product USING GIN (to_tsvector('english', coalesce(name, '') || ' ' || coalesce(description, '')));
+
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON product (name, id);
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON product (price, id);
+CREATE INDEX IF NOT EXISTS idx_product_quantity_id ON product (quantity, id);
+CREATE INDEX IF NOT EXISTS idx_product_created_at_id ON product (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_updated_at_id ON product (updated_at, id);
+-- Keyset pages sort the nullable columns on a non-null stand-in and price as a float (see ProductKeysetService)
+CREATE INDEX IF NOT EXISTS idx_product_quantity_keyset ON product ((coalesce(quantity, 0)), id);
+CREATE INDEX IF NOT EXISTS idx_product_price_keyset ON product ((price::real), id);
+CREATE INDEX IF NOT EXISTS idx_product_updated_at_keyset ON product ((coalesce(updated_at, created_at)), id);
+
+-- cache_key is the hex SHA-256 of LlmService's key (see LlmDescriptionStore)
+CREATE TABLE IF NOT EXISTS llm_description_cache (
+    cache_key CHAR(64) PRIMARY KEY,
+    description TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The last suffix handed out per base slug, seeded from product on first use (see ProductRepository)
+CREATE TABLE IF NOT EXISTS slug_counter (
+    base VARCHAR(255) PRIMARY KEY,
+    next_suffix INTEGER NOT NULL
+);
+
+-- Byte-wise prefix range scans over slugs, whatever the database collation
+CREATE INDEX IF NOT EXISTS idx_product_slug_pattern ON product (slug text_pattern_ops);
+
+-- One row per statement that changes product, appended rather than updated so concurrent writers never wait on each
+-- other. The catalog version is the sum of changes over the rows a transaction can see, which moves exactly when a
+-- change commits, on replicas too. count_changes only counts changes that can alter a listing total (rows added or
+-- removed, or a name, description, price or in-stock change). CatalogVersionRepository folds the rows into one.
+CREATE TABLE IF NOT EXISTS catalog_change (
+    id BIGSERIAL PRIMARY KEY,
+    changes BIGINT NOT NULL,
+    count_changes BIGINT NOT NULL
+);
+
+DROP TRIGGER IF EXISTS product_catalog_version ON product;
+DROP FUNCTION IF EXISTS bump_catalog_version();
+DROP TABLE IF EXISTS catalog_version;
+
+CREATE OR REPLACE FUNCTION record_catalog_change() RETURNS TRIGGER LANGUAGE plpgsql AS
+'BEGIN INSERT INTO catalog_change (changes, count_changes) VALUES (1, 1); RETURN NULL; END';
+
+-- Statements that updated no row (a refused decrement) are not a change
+CREATE OR REPLACE FUNCTION record_catalog_update() RETURNS TRIGGER LANGUAGE plpgsql AS
+'BEGIN
+    INSERT INTO catalog_change (changes, count_changes)
+    SELECT 1, CASE WHEN EXISTS (
+        SELECT 1 FROM old_rows o JOIN new_rows n ON n.id = o.id
+        WHERE o.name IS DISTINCT FROM n.name OR o.description IS DISTINCT FROM n.description
+            OR o.price IS DISTINCT FROM n.price OR (o.quantity > 0) IS DISTINCT FROM (n.quantity > 0)
+    ) THEN 1 ELSE 0 END
+    WHERE EXISTS (SELECT 1 FROM new_rows);
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS product_catalog_change ON product;
+CREATE TRIGGER product_catalog_change AFTER INSERT OR DELETE OR TRUNCATE ON product
+    FOR EACH STATEMENT EXECUTE FUNCTION record_catalog_change();
+
+DROP TRIGGER IF EXISTS product_catalog_update ON product;
+CREATE TRIGGER product_catalog_update AFTER UPDATE ON product
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_catalog_update();
+
+-- Optimistic locking for entity writes, every other UPDATE of product bumps it as well
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Transactional outbox of product changes, written by a row trigger in the same transaction as the change itself, so
+-- every write path (API, quantity updates, imports, batch descriptions) is covered and nothing is published that
+-- didn't commit. txid orders events by transaction: a transaction only becomes readable once every transaction with
+-- a lower txid has finished (see ProductEventRepository), so consumers reading in (txid, id) order never skip one.
+CREATE TABLE IF NOT EXISTS product_event (
+    id BIGSERIAL PRIMARY KEY,
+    txid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    type VARCHAR(16) NOT NULL,
+    slug VARCHAR(255) NOT NULL,
+    product JSONB,
+    occurred_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_event_txid_id ON product_event (txid, id);
+CREATE INDEX IF NOT EXISTS idx_product_event_occurred_at ON product_event USING BRIN (occurred_at);
+
+CREATE OR REPLACE FUNCTION record_product_event() RETURNS TRIGGER LANGUAGE plpgsql AS
+'BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        INSERT INTO product_event (type, slug) VALUES (''deleted'', OLD.slug);
+    ELSE
+        INSERT INTO product_event (type, slug, product) VALUES (
+            CASE WHEN TG_OP = ''INSERT'' THEN ''created'' ELSE ''updated'' END,
+            NEW.slug,
+            jsonb_build_object(''name'', NEW.name, ''slug'', NEW.slug, ''description'', NEW.description, ''price'', NEW.price, ''quantity'', NEW.quantity)
+        );
+    END IF;
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS product_change_event ON product;
+CREATE TRIGGER product_change_event AFTER INSERT OR UPDATE OR DELETE ON product
+    FOR EACH ROW EXECUTE FUNCTION record_product_event();
+
+-- Listings filtered to products in stock, sorted by price (price ranges) or by the default updated_at. Filters on price
+-- alone use idx_product_price_id.
+CREATE INDEX IF NOT EXISTS idx_product_in_stock_price_id ON product (price, id) WHERE quantity > 0;
+CREATE INDEX IF NOT EXISTS idx_product_in_stock_updated_at_id ON product (updated_at, id) WHERE quantity > 0;
@@ -0,0 +1,60 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.model.CatalogVersion;
+import com.billy.backend.repository.CatalogVersionRepository;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class CatalogVersionRepositoryTest {
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testOnlyTotalChangingWritesMoveCountVersion() {
+        String slug = "catalog-" + UUID.randomUUID().toString().substring(0, 8);
+        CatalogVersion before = catalogVersionRepository.current();
+
+        jdbcTemplate.update("INSERT INTO product (slug, name, price, quantity) VALUES (?, 'Mug', 1, 5)", slug);
+        CatalogVersion inserted = catalogVersionRepository.current();
+        assertEquals(new CatalogVersion(before.version() + 1, before.countVersion() + 1), inserted);
+
+        jdbcTemplate.update("UPDATE product SET quantity = quantity - 1 WHERE slug = ?", slug);
+        CatalogVersion decremented = catalogVersionRepository.current();
+        assertEquals(new CatalogVersion(inserted.version() + 1, inserted.countVersion()), decremented);
+
+        // A refused decrement updates nothing and is not a change
+        jdbcTemplate.update("UPDATE product SET quantity = quantity - 10 WHERE slug = ? AND quantity >= 10", slug);
+        assertEquals(decremented, catalogVersionRepository.current());
+
+        jdbcTemplate.update("UPDATE product SET quantity = 0 WHERE slug = ?", slug);
+        assertEquals(new CatalogVersion(decremented.version() + 1, decremented.countVersion() + 1), catalogVersionRepository.current());
+    }
+
+    @Test
+    void testFoldKeepsVersion() {
+        String slug = "catalog-" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.update("INSERT INTO product (slug, name, price, quantity) VALUES (?, 'Mug', 1, 5)", slug);
+        jdbcTemplate.update("UPDATE product SET price = 2 WHERE slug = ?", slug);
+        CatalogVersion before = catalogVersionRepository.current();
+
+        catalogVersionRepository.fold();
+
+        assertEquals(before, catalogVersionRepository.current());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM catalog_change", Integer.class));
+    }
+}
@@ -0,0 +1,41 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.service.CsvRecordReader;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    void testReadsQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+            "name,price\r\n" +
+            "\"Lamp, big\",12.5\r\n" +
+            "\"Say \"\"hi\"\"\nsoon\",3\n" +
+            "\n" +
+            "Chair,\n"));
+
+        assertEquals(List.of("name", "price"), reader.next());
+        assertEquals(List.of("Lamp, big", "12.5"), reader.next());
+        assertEquals(List.of("Say \"hi\"\nsoon", "3"), reader.next());
+        assertEquals(3, reader.lineNumber());
+        assertEquals(List.of("Chair", ""), reader.next());
+        assertEquals(6, reader.lineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testRejectsUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,1\n"));
+
+        assertThrows(IOException.class, reader::next);
+    }
+}
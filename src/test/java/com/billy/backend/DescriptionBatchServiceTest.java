@@ -0,0 +1,135 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.config.RateLimiter;
+import com.billy.backend.dto.DescriptionResult;
+import com.billy.backend.exception.LlmUnavailableException;
+import com.billy.backend.exception.ProductNameNotValidException;
+import com.billy.backend.model.LlmBatchRequest;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.DescriptionBatchService;
+import com.billy.backend.service.LlmService;
+import com.billy.backend.service.ProductCache;
+
+import reactor.core.publisher.Mono;
+
+public class DescriptionBatchServiceTest {
+    private LlmService llmService;
+    private ProductRepository productRepository;
+    private ProductCache productCache;
+    private DescriptionBatchService descriptionBatchService;
+
+    @BeforeEach
+    void setUp() {
+        llmService = mock(LlmService.class);
+        productRepository = mock(ProductRepository.class);
+        productCache = mock(ProductCache.class);
+        descriptionBatchService = new DescriptionBatchService(llmService, productRepository, productCache, Optional.empty(), 3, 10);
+    }
+
+    @Test
+    void testConcurrencyIsCapped() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(llmService.describe(anyString())).thenAnswer(invocation -> Mono.defer(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(50)).map(tick -> {
+                inFlight.decrementAndGet();
+                return "Description";
+            });
+        }));
+
+        List<String> names = IntStream.range(0, 10).mapToObj(i -> "Product " + i).toList();
+        List<DescriptionResult> results = descriptionBatchService.generate(names, 100, false, null).collectList().block();
+
+        assertEquals(10, results.size());
+        assertEquals(3, maxInFlight.get());
+    }
+
+    @Test
+    void testFailuresAreReportedPerName() {
+        when(llmService.describe("Mug")).thenReturn(Mono.just("A cosy mug"));
+        when(llmService.describe("Desk")).thenReturn(Mono.error(new LlmUnavailableException("Upstream is down")));
+        when(llmService.describe("Lamp")).thenReturn(Mono.just(" "));
+
+        List<DescriptionResult> results = descriptionBatchService.generate(List.of("Mug", "Desk", "Lamp", ""), null, false, null)
+            .collectList()
+            .block();
+
+        assertEquals(List.of(
+            DescriptionResult.failed("", "Product name is missing"),
+            DescriptionResult.failed("Desk", "Upstream is down"),
+            DescriptionResult.failed("Lamp", "No description was generated"),
+            DescriptionResult.generated("Mug", "A cosy mug", null)
+        ), results.stream().sorted(Comparator.comparing(DescriptionResult::name)).toList());
+    }
+
+    @Test
+    void testApplyUpdatesProductsAndInvalidatesCache() {
+        when(llmService.describe("Mug")).thenReturn(Mono.just("A cosy mug"));
+        when(productRepository.updateDescriptionByName(anyString(), anyString(), any())).thenReturn(List.of("mug", "mug-1"));
+
+        List<DescriptionResult> results = descriptionBatchService.generate(List.of("Mug"), null, true, null).collectList().block();
+
+        assertEquals(List.of(DescriptionResult.generated("Mug", "A cosy mug", 2)), results);
+        verify(productRepository).updateDescriptionByName(anyString(), anyString(), any());
+        verify(productCache).invalidate("mug");
+        verify(productCache).invalidate("mug-1");
+    }
+
+    @Test
+    void testEmptyGenerationIsNeverApplied() {
+        when(llmService.describe("Mug")).thenReturn(Mono.just(""));
+
+        List<DescriptionResult> results = descriptionBatchService.generate(List.of("Mug"), null, true, null).collectList().block();
+
+        assertEquals(List.of(DescriptionResult.failed("Mug", "No description was generated")), results);
+        verify(productRepository, never()).updateDescriptionByName(anyString(), anyString(), any());
+        verify(productCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    void testMissingOrOversizedBatchIsRejected() {
+        assertThrows(ProductNameNotValidException.class, () -> descriptionBatchService.generate(null, null));
+        assertThrows(ProductNameNotValidException.class, () -> descriptionBatchService.generate(new LlmBatchRequest(null, null, true), null));
+
+        List<String> names = IntStream.range(0, 11).mapToObj(i -> "Product " + i).toList();
+        assertThrows(ProductNameNotValidException.class, () -> descriptionBatchService.generate(names, null, false, null));
+    }
+
+    @Test
+    void testEveryNameSpendsAnLlmToken() {
+        RateLimiter rateLimiter = new RateLimiter(Map.of(RateLimiter.Tier.LLM, new RateLimiter.Limit(2, 0.001)), 100, System::nanoTime);
+        DescriptionBatchService limitedService = new DescriptionBatchService(llmService, productRepository, productCache, Optional.of(rateLimiter), 1, 10);
+        when(llmService.describe(anyString())).thenReturn(Mono.just("A description"));
+
+        List<DescriptionResult> results = limitedService.generate(List.of("Mug", "Desk", "Lamp"), null, false, "ip:10.0.0.1").collectList().block();
+
+        assertEquals("A description", results.get(0).description());
+        assertEquals("A description", results.get(1).description());
+        assertTrue(results.get(2).error().startsWith("Too many requests"));
+        verify(llmService, never()).describe("Lamp");
+        // Another client has its own budget
+        assertEquals("A description", limitedService.generate(List.of("Lamp"), null, false, "ip:10.0.0.2").blockFirst().description());
+    }
+}
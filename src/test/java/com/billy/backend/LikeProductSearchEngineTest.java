@@ -0,0 +1,65 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.LikeProductSearchEngine;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class LikeProductSearchEngineTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LikeProductSearchEngine searchEngine;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        // Not the configured engine, so built here
+        searchEngine = new LikeProductSearchEngine(productRepository);
+        prefix = "like-" + UUID.randomUUID().toString().substring(0, 8);
+        insert("-shirt", "Shirt", "100% cotton");
+        insert("-mug", "Mug_large", "C:\\mugs");
+        insert("-lamp", "Lamp", "Bright");
+    }
+
+    @Test
+    void testWildcardsAreMatchedLiterally() {
+        assertEquals(List.of(prefix + "-shirt"), matching("%"));
+        assertEquals(List.of(prefix + "-mug"), matching("_"));
+        assertEquals(List.of(prefix + "-mug"), matching("\\"));
+        assertEquals(List.of(), matching("1_0"));
+        assertEquals(List.of(prefix + "-shirt"), matching("0% COT"));
+    }
+
+    private List<String> matching(String search) {
+        Specification<Product> created = (root, query, cb) -> cb.like(root.get("slug"), prefix + "-%");
+        return productRepository.findAll(created.and(searchEngine.matching(search))).stream()
+            .map(Product::getSlug)
+            .sorted()
+            .toList();
+    }
+
+    private void insert(String suffix, String name, String description) {
+        jdbcTemplate.update("INSERT INTO product (slug, name, description, price, quantity) VALUES (?, ?, ?, 1, 1)",
+            prefix + suffix, name, description);
+    }
+}
@@ -0,0 +1,48 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.repository.LlmDescriptionStore;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class LlmDescriptionStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LlmDescriptionStore descriptionStore;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        // Persistence is off in the configured store, so one is built here with it on
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("jdbcTemplate", jdbcTemplate);
+        descriptionStore = new LlmDescriptionStore(beans.getBeanProvider(JdbcTemplate.class), true);
+        prefix = "store-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void testLongKeysAreStored() {
+        String key = prefix + "|" + "very long product name ".repeat(100);
+
+        descriptionStore.save(key, "First");
+        descriptionStore.save(key, "Second");
+
+        assertEquals(Optional.of("Second"), descriptionStore.find(key));
+        assertEquals(Optional.empty(), descriptionStore.find(prefix + "|other"));
+    }
+}
@@ -0,0 +1,224 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.billy.backend.exception.LlmUnavailableException;
+import com.billy.backend.repository.LlmDescriptionStore;
+import com.billy.backend.service.LlmResilience;
+import com.billy.backend.service.LlmService;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+public class LlmServiceTest {
+    private AtomicInteger upstreamCalls;
+    private HttpStatus upstreamStatus;
+    private String upstreamContent;
+    // Served one per call ahead of upstreamContent
+    private Queue<String> upstreamReplies;
+    private LlmDescriptionStore descriptionStore;
+    private LlmService llmService;
+    private SimpleMeterRegistry meterRegistry;
+    private Duration attemptTimeout;
+    private Duration generationTimeout;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+        upstreamStatus = HttpStatus.OK;
+        upstreamContent = "A cosy mug";
+        upstreamReplies = new ConcurrentLinkedQueue<>();
+        attemptTimeout = Duration.ofSeconds(5);
+        generationTimeout = Duration.ofSeconds(5);
+        descriptionStore = mock(LlmDescriptionStore.class);
+        when(descriptionStore.find(anyString())).thenReturn(Optional.empty());
+        llmService = createService(1, ForkJoinPool.commonPool());
+    }
+
+    private LlmService createService(int promptBatchMaxSize, Executor executor) {
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            upstreamCalls.incrementAndGet();
+            String content = Objects.requireNonNullElse(upstreamReplies.poll(), upstreamContent).replace("\"", "\\\"").replace("\n", "\\n");
+            return Mono.just(ClientResponse.create(upstreamStatus)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .body("data: {\"choices\":[{\"delta\":{\"content\":\"" + content + "\"}}]}\n\ndata: [DONE]\n\n")
+                .build())
+                .delayElement(Duration.ofMillis(200));
+        });
+
+        LlmResilience resilience = new LlmResilience(
+            CircuitBreakerRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(),
+            RetryRegistry.ofDefaults(),
+            attemptTimeout,
+            generationTimeout
+        );
+        return new LlmService(webClientBuilder, "http://localhost", descriptionStore, resilience, 100, Duration.ofMinutes(1), executor, meterRegistry, promptBatchMaxSize, Duration.ofMillis(500));
+    }
+
+    @Test
+    void testRepeatedNamesAreServedFromCache() {
+        assertEquals("A cosy mug", llmService.chatCompletionApi("Coffee Mug"));
+        assertEquals("A cosy mug", llmService.chatCompletionApi("  coffee   mug "));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0.5, llmService.cacheStats().hitRate());
+    }
+
+    @Test
+    void testConcurrentRequestsAreCoalesced() {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> llmService.chatCompletionApi("Coffee Mug"));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> llmService.chatCompletionApi("Coffee Mug"));
+
+        assertEquals("A cosy mug", first.join());
+        assertEquals("A cosy mug", second.join());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void testPersistedDescriptionSkipsUpstream() {
+        when(descriptionStore.find(anyString())).thenReturn(Optional.of("Stored description"));
+
+        assertEquals("Stored description", llmService.chatCompletionApi("Coffee Mug"));
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void testGeneratedDescriptionIsStoredOffTheResponseThread() {
+        AtomicReference<String> storingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            storingThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(descriptionStore).save(anyString(), eq("A cosy mug"));
+
+        llmService.chatCompletionApi("Coffee Mug");
+
+        verify(descriptionStore, timeout(1000)).save(anyString(), eq("A cosy mug"));
+        assertTrue(storingThread.get().startsWith("boundedElastic"), storingThread.get());
+    }
+
+    @Test
+    void testFailedStoreStillReturnsTheDescription() {
+        doThrow(new IllegalStateException("database down")).when(descriptionStore).save(anyString(), anyString());
+
+        assertEquals("A cosy mug", llmService.chatCompletionApi("Coffee Mug"));
+        verify(descriptionStore, timeout(1000)).save(anyString(), eq("A cosy mug"));
+        assertEquals("A cosy mug", llmService.chatCompletionApi("Coffee Mug"));
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void testStreamedDescriptionIsCached() {
+        assertEquals(List.of("A cosy mug"), llmService.streamDescription("Coffee Mug").collectList().block());
+        assertEquals("A cosy mug", llmService.chatCompletionApi("Coffee Mug"));
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void testUpstreamFailureIsRetriedThenReportedAsUnavailable() {
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+
+        assertThrows(LlmUnavailableException.class, () -> llmService.chatCompletionApi("Coffee Mug"));
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(3, meterRegistry.get("llm.generation").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testGenerationTimeoutBoundsRetries() {
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        // Each attempt fails after 200ms and the retry backs off 500ms, so the third attempt would start after 1.4s
+        generationTimeout = Duration.ofMillis(900);
+        LlmService timedService = createService(1, ForkJoinPool.commonPool());
+
+        long start = System.nanoTime();
+        assertThrows(LlmUnavailableException.class, () -> timedService.chatCompletionApi("Coffee Mug"));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(1300)) < 0);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testGenerationIsMetered() {
+        llmService.chatCompletionApi("Coffee Mug");
+
+        assertEquals(1, meterRegistry.get("llm.time-to-first-token").timer().count());
+        assertEquals(1, meterRegistry.get("llm.generation").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("llm.tokens").summary().totalAmount());
+    }
+
+    @Test
+    void testWaitingNamesShareOnePrompt() {
+        // Loads run on the calling thread, so names join the batch in the order they are asked for
+        LlmService batchingService = createService(3, Runnable::run);
+        upstreamContent = "```json\n[\"A cosy mug\", \"A sturdy desk\", \"A bright lamp\"]\n```";
+
+        var descriptions = Mono.zip(batchingService.describe("Mug"), batchingService.describe("Desk"), batchingService.describe("Lamp")).block();
+
+        assertEquals("A cosy mug", descriptions.getT1());
+        assertEquals("A sturdy desk", descriptions.getT2());
+        assertEquals("A bright lamp", descriptions.getT3());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void testMalformedBatchReplyFallsBackToSinglePrompts() {
+        LlmService batchingService = createService(3, Runnable::run);
+
+        var descriptions = Mono.zip(batchingService.describe("Mug"), batchingService.describe("Desk"), batchingService.describe("Lamp")).block();
+
+        assertEquals(List.of("A cosy mug", "A cosy mug", "A cosy mug"), List.of(descriptions.getT1(), descriptions.getT2(), descriptions.getT3()));
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void testBatchReplyWithMissingEntryFallsBackToSinglePrompts() {
+        LlmService batchingService = createService(3, Runnable::run);
+        List<String> replies = List.of("[\"A cosy mug\", null, \"A bright lamp\"]", "[\"A cosy mug\", \" \", \"A bright lamp\"]");
+        for (int i = 0; i < replies.size(); i++) {
+            upstreamCalls.set(0);
+            upstreamReplies.add(replies.get(i));
+
+            // Fresh names each round, the cache would answer repeats
+            var descriptions = Mono.zip(batchingService.describe("Mug " + i), batchingService.describe("Desk " + i), batchingService.describe("Lamp " + i)).block();
+
+            // Every name is asked for again, none is left with an empty description
+            assertEquals(List.of("A cosy mug", "A cosy mug", "A cosy mug"), List.of(descriptions.getT1(), descriptions.getT2(), descriptions.getT3()));
+            assertEquals(4, upstreamCalls.get());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.service.LlmStreamParser;
+
+public class LlmStreamParserTest {
+
+    @Test
+    void testParsesEventsAndDoneMarker() {
+        LlmStreamParser parser = new LlmStreamParser();
+
+        List<String> tokens = parser.feed(
+            "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\",\"content\":\"Hello\"}}]}\n\n" +
+            ": keep-alive\n\n" +
+            "data: {\"choices\":[{\"delta\":{\"content\":\" world\"}}]}\r\n\r\n" +
+            "data: [DONE]\n\n");
+
+        assertEquals(List.of("Hello", " world"), tokens);
+        assertTrue(parser.isDone());
+    }
+
+    @Test
+    void testAcceptsCarriageReturnLineEndings() {
+        LlmStreamParser parser = new LlmStreamParser();
+
+        List<String> tokens = parser.feed("data: {\"content\":\"a\"}\r\rdata: {\"content\":\"b\"}\r");
+        tokens = new ArrayList<>(tokens);
+        tokens.addAll(parser.feed("\n\r\n"));
+
+        assertEquals(List.of("a", "b"), tokens);
+    }
+
+    @Test
+    void testDecodesJsonEscapes() {
+        String content = LlmStreamParser.extractContent("{\"delta\":{\"content\": \"Say \\\"hi\\\"\\nthen \\u00e9\\\\\"}}");
+
+        assertEquals("Say \"hi\"\nthen é\\", content);
+    }
+
+    @Test
+    void testIgnoresNullContent() {
+        assertNull(LlmStreamParser.extractContent("{\"delta\":{\"content\":null}}"));
+        assertNull(LlmStreamParser.extractContent("{\"delta\":{\"role\":\"content\"}}"));
+    }
+
+    @Test
+    void testJoinsEventsSplitAcrossFrames() {
+        byte[] stream = ("data: {\"choices\":[{\"delta\":{\"content\":\"Café ☕\"}}]}\n\n" +
+            "data: {\"choices\":[{\"delta\":{\"content\":\" ok\"}}]}\n\n").getBytes(StandardCharsets.UTF_8);
+        LlmStreamParser parser = new LlmStreamParser();
+        List<String> tokens = new ArrayList<>();
+
+        // One byte at a time splits every line and every multi-byte character
+        for (byte b : stream) {
+            tokens.addAll(parser.feed(ByteBuffer.wrap(new byte[] {b})));
+        }
+
+        assertEquals(List.of("Café ☕", " ok"), tokens);
+        assertFalse(parser.isDone());
+    }
+
+    @Test
+    void testFinishDispatchesTrailingEvent() {
+        LlmStreamParser parser = new LlmStreamParser();
+
+        assertTrue(parser.feed("data: {\"content\":\"last\"}").isEmpty());
+        assertEquals(List.of("last"), parser.finish());
+    }
+}
@@ -0,0 +1,63 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.ProductCache;
+
+public class ProductCacheTest {
+    private ProductRepository productRepository;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productCache = new ProductCache(productRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testFindBySlugReadsThrough() {
+        Product product = new Product(1, "test-product", "Test Product", "Description", 9.99f, 10, null, null);
+        when(productRepository.findBySlug("test-product")).thenReturn(Optional.of(product));
+
+        assertEquals(product, productCache.findBySlug("test-product").orElseThrow());
+        assertEquals(product, productCache.findBySlug("test-product").orElseThrow());
+
+        verify(productRepository, times(1)).findBySlug("test-product");
+        assertEquals(1, productCache.stats().hitCount());
+        assertEquals(1, productCache.stats().missCount());
+    }
+
+    @Test
+    void testMissesAreNotCached() {
+        Product product = new Product(1, "test-product", "Test Product", "Description", 9.99f, 10, null, null);
+        when(productRepository.findBySlug("test-product")).thenReturn(Optional.empty(), Optional.of(product));
+
+        assertTrue(productCache.findBySlug("test-product").isEmpty());
+        assertEquals(product, productCache.findBySlug("test-product").orElseThrow());
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        Product product = new Product(1, "test-product", "Test Product", "Description", 9.99f, 10, null, null);
+        when(productRepository.findBySlug("test-product")).thenReturn(Optional.of(product), Optional.empty());
+
+        productCache.findBySlug("test-product");
+        productCache.invalidate("test-product");
+
+        assertTrue(productCache.findBySlug("test-product").isEmpty());
+        verify(productRepository, times(2)).findBySlug("test-product");
+    }
+}
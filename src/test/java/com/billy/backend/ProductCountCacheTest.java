@@ -0,0 +1,54 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.billy.backend.model.ProductFilter;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.ProductCountCache;
+import com.billy.backend.service.ProductSearchEngine;
+
+public class ProductCountCacheTest {
+    private ProductRepository productRepository;
+    private ProductCountCache productCountCache;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        productCountCache = new ProductCountCache(productRepository, mock(ProductSearchEngine.class), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testTotalIsCountedOncePerCatalogVersion() {
+        when(productRepository.count()).thenReturn(42L, 43L);
+
+        assertEquals(42, productCountCache.count(7, "", ProductFilter.NONE));
+        assertEquals(42, productCountCache.count(7, "", ProductFilter.NONE));
+        verify(productRepository, times(1)).count();
+
+        assertEquals(43, productCountCache.count(8, "", ProductFilter.NONE));
+        verify(productRepository, times(2)).count();
+    }
+
+    @Test
+    void testFilteredTotalsAreCountedSeparately() {
+        ProductFilter inStock = new ProductFilter(null, null, true);
+        when(productRepository.count()).thenReturn(42L);
+        when(productRepository.count(any(Specification.class))).thenReturn(30L);
+
+        assertEquals(42, productCountCache.count(7, "", ProductFilter.NONE));
+        assertEquals(30, productCountCache.count(7, "", inStock));
+        assertEquals(30, productCountCache.count(7, "", new ProductFilter(null, null, true)));
+        verify(productRepository, times(1)).count(any(Specification.class));
+    }
+}
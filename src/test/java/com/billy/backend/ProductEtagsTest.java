@@ -0,0 +1,44 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.controller.ProductEtags;
+import com.billy.backend.model.CatalogVersion;
+import com.billy.backend.model.Product;
+
+public class ProductEtagsTest {
+
+    @Test
+    void testProductEtagChangesWithVersion() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Product product = new Product(1, "test-product", "Test Product", "Description", 9.99f, 10, createdAt, null, 0L);
+        // Same updatedAt, as two writes within the same millisecond would leave it
+        Product updatedProduct = new Product(1, "test-product", "Test Product", "Changed", 9.99f, 10, createdAt, null, 1L);
+
+        assertEquals("\"1-0\"", ProductEtags.of(product));
+        assertEquals(createdAt, ProductEtags.lastModified(product));
+        assertNotEquals(ProductEtags.of(product), ProductEtags.of(updatedProduct));
+        assertTrue(ProductEtags.of(product).startsWith("\"") && ProductEtags.of(product).endsWith("\""));
+    }
+
+    @Test
+    void testCatalogEtag() {
+        assertEquals("W/\"catalog-42\"", ProductEtags.of(new CatalogVersion(42, 40)));
+    }
+
+    @Test
+    void testIfMatch() {
+        assertTrue(ProductEtags.matches(null, "\"1-1000\""));
+        assertTrue(ProductEtags.matches("*", "\"1-1000\""));
+        assertTrue(ProductEtags.matches("\"1-999\", \"1-1000\"", "\"1-1000\""));
+        assertFalse(ProductEtags.matches("\"1-999\"", "\"1-1000\""));
+        assertFalse(ProductEtags.matches("W/\"1-1000\"", "\"1-1000\""));
+    }
+}
@@ -0,0 +1,68 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.dto.ProductEvent;
+import com.billy.backend.dto.ProductEventBatch;
+import com.billy.backend.exception.InvalidCursorException;
+import com.billy.backend.repository.ProductEventRepository;
+import com.billy.backend.service.ProductEventService;
+
+public class ProductEventServiceTest {
+    private ProductEventRepository productEventRepository;
+    private ProductEventService productEventService;
+
+    @BeforeEach
+    void setUp() {
+        productEventRepository = mock(ProductEventRepository.class);
+        productEventService = new ProductEventService(productEventRepository, 2, Duration.ofMillis(50), Duration.ofDays(7));
+    }
+
+    @Test
+    void testPollWaitsForEventsAfterOffset() {
+        ProductEvent event = new ProductEvent("12-5", "updated", "test-product", "{}", LocalDateTime.now());
+        when(productEventRepository.findAfter("12", 4L, 2)).thenReturn(List.of(), List.of(), List.of(event));
+
+        ProductEventBatch batch = productEventService.poll("12-4", Duration.ofSeconds(5)).block();
+
+        assertEquals(List.of(event), batch.events());
+        assertEquals("12-5", batch.nextOffset());
+    }
+
+    @Test
+    void testPollWithoutEventsKeepsOffset() {
+        when(productEventRepository.findAfter("12", 4L, 2)).thenReturn(List.of());
+
+        ProductEventBatch batch = productEventService.poll("12-4", Duration.ofMillis(200)).block();
+
+        assertEquals(List.of(), batch.events());
+        assertEquals("12-4", batch.nextOffset());
+    }
+
+    @Test
+    void testStreamResumesAfterLastEvent() {
+        ProductEvent first = new ProductEvent("12-5", "created", "a", "{}", LocalDateTime.now());
+        ProductEvent second = new ProductEvent("12-6", "created", "b", "{}", LocalDateTime.now());
+        ProductEvent third = new ProductEvent("13-7", "deleted", "a", null, LocalDateTime.now());
+        when(productEventRepository.findAfter("0", 0L, 2)).thenReturn(List.of(first, second));
+        when(productEventRepository.findAfter("12", 6L, 2)).thenReturn(List.of(third));
+        when(productEventRepository.findAfter("13", 7L, 2)).thenReturn(List.of());
+
+        assertEquals(List.of(first, second, third), productEventService.stream(null).take(3).collectList().block());
+    }
+
+    @Test
+    void testInvalidOffset() {
+        assertThrows(InvalidCursorException.class, () -> productEventService.stream("not-an-offset"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.controller.ProductExportController;
+import com.billy.backend.dto.ImportResult;
+import com.billy.backend.service.ProductExportService;
+import com.billy.backend.service.ProductImportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class ProductExportServiceTest {
+    // Compared at the Float precision of Product.price, which is what the export writes
+    private static final String SELECT_SQL =
+        "SELECT slug, name, description, price::real AS price, quantity FROM product WHERE slug LIKE ? ORDER BY slug";
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportController productExportController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "export-" + UUID.randomUUID().toString().substring(0, 8);
+        insert(prefix + "-mug", "Mug, large", "Holds \"a lot\"\nof coffee", 9.99f, 3);
+        insert(prefix + "-lamp", "Lamp", null, 20f, 0);
+        insert(prefix + "-desk", "Desk", "Oak", 149.5f, 1);
+    }
+
+    @Test
+    void testCsvRoundTrip() throws IOException {
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        productExportService.exportCsv(export);
+
+        assertRoundTrip(export, MediaType.valueOf("text/csv"));
+    }
+
+    @Test
+    void testNdjsonRoundTrip() throws IOException {
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        productExportService.exportNdjson(export);
+
+        assertRoundTrip(export, MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void testNdjsonIsOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        long rows = productExportService.exportNdjson(export);
+
+        List<String> lines = export.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(rows, lines.size());
+        for (String line : lines) {
+            JsonNode product = objectMapper.readTree(line);
+            assertTrue(product.isObject(), line);
+            assertTrue(product.hasNonNull("slug"), line);
+        }
+    }
+
+    @Test
+    void testCsvNullQuantityIsImportable() {
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        insertWithoutQuantity();
+        productExportService.exportCsv(export);
+
+        assertImportsAsOutOfStock(export, MediaType.valueOf("text/csv"));
+    }
+
+    @Test
+    void testNdjsonNullQuantityIsImportable() throws IOException {
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        insertWithoutQuantity();
+        productExportService.exportNdjson(export);
+
+        assertImportsAsOutOfStock(export, MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void testNdjsonWritesThePriceAsStored() throws IOException {
+        // More digits than a float holds, as the CSV export writes it
+        jdbcTemplate.update("INSERT INTO product (slug, name, price, quantity) VALUES (?, 'Pen', ?, 1)", prefix + "-pen", 1.000000001d);
+
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        productExportService.exportNdjson(export);
+
+        JsonNode pen = null;
+        for (String line : export.toString(StandardCharsets.UTF_8).lines().toList()) {
+            JsonNode product = objectMapper.readTree(line);
+            if (product.get("slug").asText().equals(prefix + "-pen")) {
+                pen = product;
+            }
+        }
+        assertEquals("1.000000001", pen.get("price").asText());
+    }
+
+    @Test
+    void testAnyOtherAcceptGetsNdjson() throws IOException {
+        for (String accept : List.of(MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE, "not a media type")) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            productExportController.export(accept, response);
+
+            assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType(), accept);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        productExportController.export("text/csv, application/json;q=0.5", response);
+        assertTrue(response.getContentType().startsWith("text/csv"));
+    }
+
+    // Deleting the products and importing the export has to bring them back unchanged
+    private void assertRoundTrip(ByteArrayOutputStream export, MediaType format) {
+        List<Map<String, Object>> exported = jdbcTemplate.queryForList(SELECT_SQL, prefix + "-%");
+        jdbcTemplate.update("DELETE FROM product WHERE slug LIKE ?", prefix + "-%");
+
+        productImportService.importProducts(new ByteArrayInputStream(export.toByteArray()), format);
+
+        assertEquals(3, exported.size());
+        assertEquals(exported, jdbcTemplate.queryForList(SELECT_SQL, prefix + "-%"));
+    }
+
+    private void insertWithoutQuantity() {
+        jdbcTemplate.update("INSERT INTO product (slug, name, price) VALUES (?, 'Vase', 5)", prefix + "-vase");
+    }
+
+    // The import rejects a missing quantity, so the export has to write one
+    private void assertImportsAsOutOfStock(ByteArrayOutputStream export, MediaType format) {
+        ImportResult result = productImportService.importProducts(new ByteArrayInputStream(export.toByteArray()), format);
+
+        assertEquals(0, result.rejected());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE slug = ?", Integer.class, prefix + "-vase"));
+    }
+
+    private void insert(String slug, String name, String description, float price, int quantity) {
+        jdbcTemplate.update("INSERT INTO product (slug, name, description, price, quantity) VALUES (?, ?, ?, ?, ?)",
+            slug, name, description, price, quantity);
+    }
+}
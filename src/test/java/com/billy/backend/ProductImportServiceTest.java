@@ -0,0 +1,134 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.dto.ImportResult;
+import com.billy.backend.dto.ImportResult.ImportError;
+import com.billy.backend.model.Product;
+import com.billy.backend.model.ProductFilter;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.ProductImportService;
+import com.billy.backend.service.ProductKeysetService;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class ProductImportServiceTest {
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductKeysetService productKeysetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "import-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void testRejectedLinesAreReportedWithoutFailingTheImport() {
+        ImportResult result = importProducts(TEXT_CSV,
+            "slug,name,price,quantity\n" +
+            prefix + "-mug,Mug,9.99,3\n" +
+            prefix + "-nameless,,9.99,3\n" +
+            prefix + "-free,Free,0,3\n" +
+            "\"" + "x".repeat(256) + "\",Long slug,9.99,3\n" +
+            prefix + "-lamp,Lamp,cheap,3\n");
+
+        assertEquals(5, result.received());
+        assertEquals(1, result.inserted());
+        assertEquals(4, result.rejected());
+        assertEquals(List.of(
+            new ImportError(3, "Name is required"),
+            new ImportError(4, "Price must be a positive value"),
+            new ImportError(5, "Slug must be at most 255 characters"),
+            new ImportError(6, "Invalid number: For input string: \"cheap\"")
+        ), result.errors());
+        assertEquals("Mug", productRepository.findBySlug(prefix + "-mug").orElseThrow().getName());
+    }
+
+    @Test
+    void testRepeatedSlugKeepsLastRow() {
+        ImportResult result = importProducts(MediaType.APPLICATION_NDJSON,
+            "{\"slug\":\"" + prefix + "-mug\",\"name\":\"Mug\",\"price\":9.99,\"quantity\":3}\n" +
+            "{\"slug\":\"" + prefix + "-mug\",\"name\":\"Mug\",\"price\":12.5,\"quantity\":4}\n");
+
+        assertEquals(2, result.received());
+        assertEquals(1, result.inserted());
+        assertEquals(0, result.updated());
+        assertEquals(12.5f, productRepository.findBySlug(prefix + "-mug").orElseThrow().getPrice());
+    }
+
+    @Test
+    void testExistingSlugsAreUpdated() {
+        // The staging table lives until commit, so the existing row is saved directly rather than imported
+        productRepository.saveAndFlush(new Product(null, prefix + "-mug", "Mug", null, 9.99f, 3, LocalDateTime.now(), LocalDateTime.now()));
+
+        ImportResult result = importProducts(TEXT_CSV,
+            "slug,name,price,quantity\n" +
+            prefix + "-mug,Mug,12.5,4\n" +
+            prefix + "-lamp,Lamp,20,1\n");
+
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.updated());
+        assertEquals(0, result.rejected());
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT quantity FROM product WHERE slug = ?", Integer.class, prefix + "-mug"));
+    }
+
+    @Test
+    void testImportedPricesMatchAppWrites() {
+        StringBuilder csv = new StringBuilder("slug,name,price,quantity\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append(prefix).append("-mug-").append(i).append(",Mug,19.99,1\n");
+        }
+        importProducts(TEXT_CSV, csv.toString());
+        productRepository.saveAndFlush(new Product(null, prefix + "-cup", "Cup", null, 19.99f, 1, LocalDateTime.now(), LocalDateTime.now()));
+
+        Specification<Product> imported = (root, query, cb) -> cb.like(root.get("slug"), prefix + "-%");
+        assertEquals(6, productRepository.count(imported.and(new ProductFilter(null, 19.99f, null).toSpecification())));
+
+        // Every row exactly once, although all share the cursor's price
+        List<String> slugs = new ArrayList<>();
+        String after = "";
+        Slice<Product> page;
+        do {
+            page = productKeysetService.findAll(imported, after, 2, "price", "asc");
+            page.forEach(product -> slugs.add(product.getSlug()));
+            after = page.hasNext() ? productKeysetService.encodeCursor(page.getContent().get(page.getNumberOfElements() - 1), "price") : "";
+        } while (page.hasNext());
+        assertEquals(6, slugs.size());
+        assertEquals(6, new HashSet<>(slugs).size());
+    }
+
+    private ImportResult importProducts(MediaType format, String body) {
+        return productImportService.importProducts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
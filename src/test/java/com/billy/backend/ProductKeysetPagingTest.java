@@ -0,0 +1,78 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.ProductKeysetService;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class ProductKeysetPagingTest {
+
+    @Autowired
+    private ProductKeysetService productKeysetService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "keyset-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    void testDuplicatePricesArePagedOnce() {
+        // The same price as the app writes it (a float) and as an exact double, like rows imported before imports
+        // rounded prices
+        for (int i = 0; i < 3; i++) {
+            productRepository.saveAndFlush(new Product(null, prefix + "-float-" + i, "Mug", null, 19.99f, 1, LocalDateTime.now(), LocalDateTime.now()));
+            jdbcTemplate.update("INSERT INTO product (slug, name, price, quantity) VALUES (?, 'Mug', ?, 1)", prefix + "-double-" + i, 19.99d);
+        }
+        productRepository.saveAndFlush(new Product(null, prefix + "-cheap", "Mug", null, 5f, 1, LocalDateTime.now(), LocalDateTime.now()));
+        productRepository.saveAndFlush(new Product(null, prefix + "-dear", "Mug", null, 25f, 1, LocalDateTime.now(), LocalDateTime.now()));
+
+        for (String sortOrder : List.of("asc", "desc")) {
+            List<Product> products = pageThrough(sortOrder, 2);
+
+            assertEquals(8, products.size(), sortOrder);
+            assertEquals(8, products.stream().map(Product::getId).distinct().count(), sortOrder);
+            assertEquals(sortOrder.equals("asc") ? prefix + "-cheap" : prefix + "-dear", products.get(0).getSlug());
+        }
+    }
+
+    private List<Product> pageThrough(String sortOrder, int pageSize) {
+        Specification<Product> created = (root, query, cb) -> cb.like(root.get("slug"), prefix + "-%");
+        List<Product> products = new ArrayList<>();
+        String after = "";
+        Slice<Product> page;
+        // Bounded, a cursor that stops advancing would otherwise page forever
+        int pages = 0;
+        do {
+            page = productKeysetService.findAll(created, after, pageSize, "price", sortOrder);
+            products.addAll(page.getContent());
+            after = page.hasNext() ? productKeysetService.encodeCursor(products.get(products.size() - 1), "price") : "";
+        } while (page.hasNext() && ++pages < 10);
+        return products;
+    }
+}
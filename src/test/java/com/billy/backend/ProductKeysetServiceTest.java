@@ -0,0 +1,163 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCoalesce;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.billy.backend.exception.InvalidCursorException;
+import com.billy.backend.exception.InvalidPageSizeException;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ProductRepository;
+import com.billy.backend.service.ProductKeysetService;
+import com.billy.backend.service.ProductService;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+public class ProductKeysetServiceTest {
+    private ProductRepository productRepository;
+    private ProductKeysetService keysetService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        keysetService = new ProductKeysetService(productRepository, new ProductService(productRepository));
+        when(productRepository.<Product, List<Product>>findBy(any(Specification.class), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void testCursorRoundTripSeeksPastLastRow() {
+        Product last = new Product(7, "mug", "Mug", "Description", 9.99f, 3, LocalDateTime.now(), LocalDateTime.now());
+        String cursor = keysetService.encodeCursor(last, "price");
+
+        HibernateCriteriaBuilder cb = applyCapturedSpecification(cursor, "price", "asc");
+
+        verify(cb).value(9.99f);
+        verify(cb).value(7);
+        verify(cb).function(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testNullQuantitySeeksOnStandIn() {
+        Product last = new Product(7, "mug", "Mug", "Description", 9.99f, null, LocalDateTime.now(), LocalDateTime.now());
+        String cursor = keysetService.encodeCursor(last, "quantity");
+
+        Root<Product> root = mockRoot();
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class);
+        JpaFunction<Integer> quantityKey = mock();
+        JpaExpression<Integer> cursorQuantity = mock();
+        JpaExpression<Integer> cursorId = mock();
+        when(cb.function("keyset_quantity", Integer.class, root.get("quantity"))).thenReturn(quantityKey);
+        when(cb.value(0)).thenReturn(cursorQuantity);
+        when(cb.value(7)).thenReturn(cursorId);
+
+        applyCapturedSpecification(cursor, "quantity", "desc", root, cb);
+
+        // The row value comparison is made on coalesce(quantity, 0), never on the nullable column itself
+        verify(cb).function("keyset_before", Boolean.class, quantityKey, root.get("id"), cursorQuantity, cursorId);
+        verify(cb).desc(quantityKey);
+    }
+
+    @Test
+    void testNeverUpdatedProductSeeksOnCreatedAt() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Product last = new Product(7, "mug", "Mug", "Description", 9.99f, 3, createdAt, null);
+        String cursor = keysetService.encodeCursor(last, "updatedAt");
+
+        Root<Product> root = mockRoot();
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class);
+        JpaCoalesce<Object> updatedAtKey = mock();
+        JpaExpression<LocalDateTime> cursorUpdatedAt = mock();
+        JpaExpression<Integer> cursorId = mock();
+        when(cb.coalesce(root.get("updatedAt"), root.get("createdAt"))).thenReturn(updatedAtKey);
+        when(cb.value(createdAt)).thenReturn(cursorUpdatedAt);
+        when(cb.value(7)).thenReturn(cursorId);
+
+        applyCapturedSpecification(cursor, "updatedAt", "desc", root, cb);
+
+        verify(cb).function("keyset_before", Boolean.class, updatedAtKey, root.get("id"), cursorUpdatedAt, cursorId);
+    }
+
+    @Test
+    void testTamperedCursorIsRejected() {
+        assertThrows(InvalidCursorException.class,
+            () -> keysetService.findAll(Specification.where(null), "not-a-cursor", 12, "price", "asc"));
+
+        Product last = new Product(7, "mug", "Mug", "Description", 9.99f, 3, LocalDateTime.now(), LocalDateTime.now());
+        String cursor = keysetService.encodeCursor(last, "price");
+        String truncated = cursor.substring(0, cursor.length() - 3);
+        assertThrows(InvalidCursorException.class,
+            () -> keysetService.findAll(Specification.where(null), truncated, 12, "price", "asc"));
+    }
+
+    @Test
+    void testCursorForAnotherSortIsRejected() {
+        Product last = new Product(7, "mug", "Mug", "Description", 9.99f, 3, LocalDateTime.now(), LocalDateTime.now());
+        String cursor = keysetService.encodeCursor(last, "price");
+
+        InvalidCursorException exception = assertThrows(InvalidCursorException.class,
+            () -> keysetService.findAll(Specification.where(null), cursor, 12, "name", "asc"));
+        assertTrue(exception.getMessage().contains("sortBy price"));
+    }
+
+    @Test
+    void testNonPositivePageSizeIsRejected() {
+        assertThrows(InvalidPageSizeException.class,
+            () -> keysetService.findAll(Specification.where(null), "", 0, "price", "asc"));
+    }
+
+    @Test
+    void testExtraRowSignalsNextPage() {
+        Product first = new Product(1, "a", "A", null, 1f, 1, LocalDateTime.now(), LocalDateTime.now());
+        Product second = new Product(2, "b", "B", null, 2f, 1, LocalDateTime.now(), LocalDateTime.now());
+        when(productRepository.<Product, List<Product>>findBy(any(Specification.class), any())).thenReturn(List.of(first, second));
+
+        Slice<Product> slice = keysetService.findAll(Specification.where(null), "", 1, "price", "asc");
+
+        assertEquals(List.of(first), slice.getContent());
+        assertTrue(slice.hasNext());
+    }
+
+    private HibernateCriteriaBuilder applyCapturedSpecification(String cursor, String sortBy, String sortOrder) {
+        HibernateCriteriaBuilder cb = mock(HibernateCriteriaBuilder.class);
+        applyCapturedSpecification(cursor, sortBy, sortOrder, mockRoot(), cb);
+        return cb;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyCapturedSpecification(String cursor, String sortBy, String sortOrder, Root<Product> root, HibernateCriteriaBuilder cb) {
+        keysetService.findAll(Specification.where(null), cursor, 12, sortBy, sortOrder);
+
+        ArgumentCaptor<Specification<Product>> specification = ArgumentCaptor.forClass(Specification.class);
+        verify(productRepository).findBy(specification.capture(), any());
+        specification.getValue().toPredicate(root, mock(CriteriaQuery.class), cb);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Root<Product> mockRoot() {
+        Root<Product> root = mock(Root.class);
+        for (String attribute : List.of("id", "name", "price", "quantity", "createdAt", "updatedAt")) {
+            Path<Object> path = mock(Path.class);
+            when(root.get(attribute)).thenReturn(path);
+        }
+        return root;
+    }
+}
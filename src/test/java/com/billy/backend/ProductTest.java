@@ -2,22 +2,32 @@ package com.billy.backend;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
+import com.billy.backend.exception.InsufficientStockException;
+import com.billy.backend.exception.ProductNotFoundException;
+import com.billy.backend.exception.StockLimitExceededException;
 import com.billy.backend.model.Product;
 import com.billy.backend.repository.ProductRepository;
 import com.billy.backend.service.ProductService;
@@ -36,25 +46,24 @@ public class ProductTest {
 
     @Test
     void testSlugify() {
-        String result = productService.slugify("Test Product Name");
+        String result = ProductService.slugify("Test Product Name");
         assertEquals("test-product-name", result);
     }
 
     @Test
     void testGenerateUniqueSlug() {
-        when(productRepository.existsBySlug("test-product")).thenReturn(true, false);
+        when(productRepository.allocateSlugSuffix("test-product")).thenReturn(0, 1);
 
-        String uniqueSlug = productService.generateUniqueSlug("test-product");
-
-        assertEquals("test-product-1", uniqueSlug);
-        verify(productRepository, times(2)).existsBySlug(anyString());
+        assertEquals("test-product", productService.generateUniqueSlug("test-product"));
+        assertEquals("test-product-1", productService.generateUniqueSlug("test-product"));
+        verify(productRepository, times(2)).allocateSlugSuffix(anyString());
     }
 
     @Test
     void testCreateProduct() {
         Product product = new Product(null, null, "Test Product", "Description", 9.99f, 10, null, null);
 
-        when(productRepository.existsBySlug("test-product")).thenReturn(false);
+        when(productRepository.allocateSlugSuffix("test-product")).thenReturn(0);
 
         Product result = productService.createProduct(product);
 
@@ -67,9 +76,26 @@ public class ProductTest {
         assertNotNull(result.getUpdatedAt());
     }
 
+    @Test
+    void testSaveNewProductRetriesOnSlugConflict() {
+        Product product = new Product(null, null, "Test Product", "Description", 9.99f, 10, null, null);
+        DataIntegrityViolationException slugConflict = new DataIntegrityViolationException("duplicate",
+            new ConstraintViolationException("duplicate", new SQLException("duplicate"), "product_slug_key"));
+
+        when(productRepository.allocateSlugSuffix("test-product")).thenReturn(0, 1);
+        when(productRepository.save(any(Product.class)))
+            .thenThrow(slugConflict)
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Product result = productService.saveNewProduct(product);
+
+        assertEquals("test-product-1", result.getSlug());
+        verify(productRepository, times(2)).save(any(Product.class));
+    }
+
     @Test
     void testUpdateProduct() {
-        Product existingProduct = new Product(1, "test-product", "old name", "old description", 1.23f, 5, LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1));
+        Product existingProduct = new Product(1, "test-product", "old name", "old description", 1.23f, 5, LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1), 4L);
         Product updates = new Product(null, null, "new name", null, null, 20, null, null);
 
         Product result = productService.updateProduct(existingProduct, updates);
@@ -83,6 +109,33 @@ public class ProductTest {
         assertEquals(existingProduct.getCreatedAt(), result.getCreatedAt());
         assertNotNull(result.getUpdatedAt());
         assertTrue(result.getUpdatedAt().isAfter(existingProduct.getUpdatedAt()));
+        assertEquals(4L, result.getVersion());
+    }
+
+    @Test
+    void testDecrementQuantity() {
+        when(productRepository.decrementQuantity(eq("in-stock"), eq(3), any(LocalDateTime.class)))
+            .thenReturn(Optional.empty());
+        when(productRepository.decrementQuantity(eq("missing"), eq(3), any(LocalDateTime.class)))
+            .thenReturn(Optional.empty());
+        when(productRepository.existsBySlug("in-stock")).thenReturn(true);
+        when(productRepository.existsBySlug("missing")).thenReturn(false);
+
+        assertThrows(InsufficientStockException.class, () -> productService.decrementQuantity("in-stock", 3));
+        assertThrows(ProductNotFoundException.class, () -> productService.decrementQuantity("missing", 3));
+    }
+
+    @Test
+    void testIncrementQuantityPastMaximum() {
+        when(productRepository.incrementQuantity(eq("full"), eq(Integer.MAX_VALUE), any(LocalDateTime.class)))
+            .thenReturn(Optional.empty());
+        when(productRepository.incrementQuantity(eq("missing"), eq(Integer.MAX_VALUE), any(LocalDateTime.class)))
+            .thenReturn(Optional.empty());
+        when(productRepository.existsBySlug("full")).thenReturn(true);
+        when(productRepository.existsBySlug("missing")).thenReturn(false);
+
+        assertThrows(StockLimitExceededException.class, () -> productService.incrementQuantity("full", Integer.MAX_VALUE));
+        assertThrows(ProductNotFoundException.class, () -> productService.incrementQuantity("missing", Integer.MAX_VALUE));
     }
 
     @Test
@@ -99,4 +152,13 @@ public class ProductTest {
         assertEquals(5, defaultSortPageable.getPageSize());
         assertEquals(Sort.by(Sort.Direction.DESC, "updatedAt"), defaultSortPageable.getSort());
     }
+
+    @Test
+    void testCreatePageableByRelevance() {
+        Pageable pageable = productService.createPageable(2, 12, "relevance", "desc");
+
+        assertEquals(2, pageable.getPageNumber());
+        assertEquals(12, pageable.getPageSize());
+        assertTrue(pageable.getSort().isUnsorted());
+    }
 }
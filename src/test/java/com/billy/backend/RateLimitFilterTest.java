@@ -0,0 +1,85 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.billy.backend.config.RateLimitFilter;
+import com.billy.backend.config.RateLimiter;
+import com.billy.backend.config.RateLimiter.Tier;
+import com.billy.backend.config.ReactiveRateLimitFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import reactor.core.publisher.Mono;
+
+public class RateLimitFilterTest {
+    private static final Set<String> API_KEYS = Set.of("known-key");
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // One request per client, never refilled within a test
+        rateLimiter = new RateLimiter(Map.of(Tier.READ, new RateLimiter.Limit(1, 0.001)), 100, System::nanoTime);
+    }
+
+    @Test
+    void testUnknownKeyIsLimitedByAddress() throws ServletException, IOException {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, "X-API-Key", API_KEYS, new SimpleMeterRegistry());
+
+        assertEquals(HttpStatus.OK.value(), status(filter, "made-up-1", "10.0.0.1"));
+        // A fresh key doesn't buy a fresh bucket
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), status(filter, "made-up-2", "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), status(filter, null, "10.0.0.1"));
+
+        assertEquals(HttpStatus.OK.value(), status(filter, "known-key", "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), status(filter, "known-key", "10.0.0.2"));
+    }
+
+    @Test
+    void testReactiveUnknownKeyIsLimitedByAddress() {
+        ReactiveRateLimitFilter filter = new ReactiveRateLimitFilter(rateLimiter, "X-API-Key", API_KEYS, new SimpleMeterRegistry());
+
+        assertEquals(null, status(filter, "made-up-1", "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(filter, "made-up-2", "10.0.0.1"));
+
+        assertEquals(null, status(filter, "known-key", "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(filter, "known-key", "10.0.0.2"));
+    }
+
+    private int status(RateLimitFilter filter, String apiKey, String address) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    // Null when the request was let through, the chain never sets a status
+    private HttpStatus status(ReactiveRateLimitFilter filter, String apiKey, String address) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/products")
+            .remoteAddress(new InetSocketAddress(address, 1234));
+        if (apiKey != null) {
+            request.header("X-API-Key", apiKey);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chained -> Mono.empty()).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+}
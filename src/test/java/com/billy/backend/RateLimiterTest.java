@@ -0,0 +1,63 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.config.RateLimiter;
+import com.billy.backend.config.RateLimiter.Tier;
+
+public class RateLimiterTest {
+    private AtomicLong clock;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000_000L);
+        rateLimiter = new RateLimiter(Map.of(
+            Tier.READ, new RateLimiter.Limit(3, 1),
+            Tier.LLM, new RateLimiter.Limit(1, 0.5)
+        ), 100, clock::get);
+    }
+
+    @Test
+    void testBurstThenRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire(Tier.READ, "ip:1").isZero());
+        }
+        assertEquals(Duration.ofSeconds(1), rateLimiter.tryAcquire(Tier.READ, "ip:1"));
+
+        clock.addAndGet(Duration.ofMillis(999).toNanos());
+        assertEquals(Duration.ofMillis(1), rateLimiter.tryAcquire(Tier.READ, "ip:1"));
+        clock.addAndGet(Duration.ofMillis(1).toNanos());
+        assertTrue(rateLimiter.tryAcquire(Tier.READ, "ip:1").isZero());
+    }
+
+    @Test
+    void testClientsAndTiersHaveSeparateBudgets() {
+        assertTrue(rateLimiter.tryAcquire(Tier.LLM, "ip:1").isZero());
+        assertEquals(Duration.ofSeconds(2), rateLimiter.tryAcquire(Tier.LLM, "ip:1"));
+
+        assertTrue(rateLimiter.tryAcquire(Tier.LLM, "key:abc").isZero());
+        assertTrue(rateLimiter.tryAcquire(Tier.READ, "ip:1").isZero());
+        // No limit configured for the tier
+        assertTrue(rateLimiter.tryAcquire(Tier.SEARCH, "ip:1").isZero());
+    }
+
+    @Test
+    void testTierOfRequest() {
+        assertEquals(Tier.READ, Tier.of("/products", false));
+        assertEquals(Tier.SEARCH, Tier.of("/products", true));
+        assertEquals(Tier.SEARCH, Tier.of("/product-export", false));
+        assertEquals(Tier.LLM, Tier.of("/products/generate-description/stream", false));
+        // Charged per name by DescriptionBatchService
+        assertEquals(Tier.READ, Tier.of("/products/generate-description/batch", false));
+        assertEquals(Tier.IMPORT, Tier.of("/products/import", false));
+    }
+}
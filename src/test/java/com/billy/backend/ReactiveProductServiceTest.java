@@ -0,0 +1,100 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.billy.backend.exception.InvalidPageSizeException;
+import com.billy.backend.exception.ProductNotFoundException;
+import com.billy.backend.model.Product;
+import com.billy.backend.repository.ReactiveProductRepository;
+import com.billy.backend.service.ReactiveProductService;
+
+import io.r2dbc.postgresql.api.ErrorDetails;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import io.r2dbc.postgresql.message.backend.Field;
+import reactor.core.publisher.Mono;
+
+public class ReactiveProductServiceTest {
+    private ReactiveProductRepository productRepository;
+    private ReactiveProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ReactiveProductRepository.class);
+        productService = new ReactiveProductService(productRepository);
+    }
+
+    @Test
+    void testCreateRetriesOnSlugConflict() {
+        Product product = new Product(null, null, "Test Product", "Description", 9.99f, 10, null, null);
+
+        when(productRepository.allocateSlugSuffix("test-product")).thenReturn(Mono.just(0), Mono.just(1));
+        when(productRepository.insert(any(Product.class))).thenAnswer(invocation -> {
+            Product inserted = invocation.getArgument(0);
+            if (inserted.getSlug().equals("test-product")) {
+                return Mono.error(new DataIntegrityViolationException("duplicate", new SlugConflict()));
+            }
+            return Mono.just(inserted);
+        });
+
+        Product result = productService.create(product).block();
+
+        assertEquals("test-product-1", result.getSlug());
+        verify(productRepository, times(2)).insert(any(Product.class));
+    }
+
+    @Test
+    void testUpdateKeepsMissingFields() {
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(1);
+        Product existingProduct = new Product(1, "test-product", "Test Product", "Description", 9.99f, 10, createdAt, createdAt, 3L);
+
+        when(productRepository.findBySlug("test-product")).thenReturn(Mono.just(existingProduct));
+        when(productRepository.update(any(Product.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        Product result = productService.update("test-product", new Product(null, null, null, null, 19.99f, null, null, null)).block();
+
+        assertEquals(1, result.getId());
+        assertEquals("Test Product", result.getName());
+        assertEquals(19.99f, result.getPrice());
+        assertEquals(10, result.getQuantity());
+        assertEquals(createdAt, result.getCreatedAt());
+        assertEquals(3L, result.getVersion());
+    }
+
+    @Test
+    void testUpdateUnknownSlug() {
+        when(productRepository.findBySlug("missing")).thenReturn(Mono.empty());
+
+        assertThrows(ProductNotFoundException.class, () -> productService.update("missing", new Product(null, null, "Name", null, null, null, null, null)).block());
+        verify(productRepository, never()).update(any(Product.class));
+    }
+
+    @Test
+    void testFindAllRejectsNonPositivePageSize() {
+        assertThrows(InvalidPageSizeException.class, () -> productService.findAll(0, 0, "name", "asc", null));
+        assertThrows(InvalidPageSizeException.class, () -> productService.findAll(0, -1, "name", "asc", null));
+        verify(productRepository, never()).findAll(any(), any(), any(), anyInt(), anyLong());
+    }
+
+    private static class SlugConflict extends RuntimeException implements PostgresqlException {
+        @Override
+        public ErrorDetails getErrorDetails() {
+            return new ErrorDetails(List.of(new Field(Field.FieldType.CONSTRAINT_NAME, "product_slug_key")));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.billy.backend.config.ReplicaRoutingDataSource;
+
+public class ReplicaRoutingDataSourceTest {
+    private Connection primaryConnection;
+    private Connection firstReplicaConnection;
+    private Connection secondReplicaConnection;
+    private DataSource primary;
+    private DataSource firstReplica;
+    private DataSource secondReplica;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primaryConnection = mock(Connection.class);
+        firstReplicaConnection = mock(Connection.class);
+        secondReplicaConnection = mock(Connection.class);
+
+        primary = mock(DataSource.class, withSettings().extraInterfaces(Closeable.class));
+        firstReplica = mock(DataSource.class, withSettings().extraInterfaces(Closeable.class));
+        secondReplica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", firstReplica);
+        replicas.put("replica-2", secondReplica);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testReadsAreSpreadOverReplicas() throws SQLException {
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testPinnedReadsGoToPrimary() throws SQLException {
+        try (ReplicaRoutingDataSource.PrimaryScope scope = ReplicaRoutingDataSource.usePrimary()) {
+            assertSame(primaryConnection, dataSource.getConnection());
+        }
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void testUnreachableReplicaIsSkipped() throws SQLException {
+        when(secondReplica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+
+        dataSource.getConnection();
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertEquals(Map.of("replica-1", "UP", "replica-2", "DOWN"), dataSource.replicaStatus());
+    }
+
+    @Test
+    void testExplicitCredentialsGoToPrimary() throws SQLException {
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection("reporting", "secret"));
+    }
+
+    @Test
+    void testCloseClosesEveryPool() throws IOException {
+        dataSource.close();
+
+        verify((Closeable) primary).close();
+        verify((Closeable) firstReplica).close();
+    }
+}
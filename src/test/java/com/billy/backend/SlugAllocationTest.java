@@ -0,0 +1,77 @@
+package com.billy.backend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.billy.backend.model.Product;
+import com.billy.backend.service.ProductImportService;
+import com.billy.backend.service.ProductService;
+
+// Against the configured database, every test rolls back
+@SpringBootTest
+@Transactional
+public class SlugAllocationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String base;
+
+    @BeforeEach
+    void setUp() {
+        base = "slug-" + UUID.randomUUID().toString().substring(0, 8) + "-mug";
+    }
+
+    @Test
+    void testFirstAllocationStartsPastExistingSlugs() {
+        // Written behind the counter's back, like rows from before it existed
+        for (int suffix = 0; suffix <= 10; suffix++) {
+            jdbcTemplate.update("INSERT INTO product (slug, name, price, quantity) VALUES (?, ?, 1, 1)",
+                suffix == 0 ? base : base + "-" + suffix, base);
+        }
+        jdbcTemplate.update("INSERT INTO product (slug, name, price, quantity) VALUES (?, ?, 1, 1)", base + "-large", base);
+
+        assertEquals(base + "-11", productService.saveNewProduct(newProduct()).getSlug());
+        assertEquals(base + "-12", productService.saveNewProduct(newProduct()).getSlug());
+    }
+
+    @Test
+    void testFirstAllocationOfUnknownBaseIsBareSlug() {
+        assertEquals(base, productService.saveNewProduct(newProduct()).getSlug());
+        assertEquals(base + "-1", productService.saveNewProduct(newProduct()).getSlug());
+    }
+
+    @Test
+    void testImportAdvancesCounter() {
+        productService.saveNewProduct(newProduct());
+
+        StringBuilder csv = new StringBuilder("slug,name,price,quantity\n");
+        for (int suffix = 1; suffix <= 10; suffix++) {
+            csv.append(base).append('-').append(suffix).append(",Mug,1,1\n");
+        }
+        productImportService.importProducts(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), MediaType.valueOf("text/csv"));
+
+        assertEquals(base + "-11", productService.saveNewProduct(newProduct()).getSlug());
+    }
+
+    private Product newProduct() {
+        return new Product(null, null, base, "Description", 9.99f, 1, null, null);
+    }
+}